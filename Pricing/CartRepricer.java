@@ -0,0 +1,278 @@
+package Pricing;
+
+import com.bookstore.online_bookstore.db.BatchWriter;
+import com.bookstore.online_bookstore.db.DatabaseManager;
+import com.bookstore.online_bookstore.model.CartTotals;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Recalculates shopping_cart.discountedTotal for every cart, e.g. after a
+ * discount has been switched on. CartService clears it whenever a cart
+ * changes, so a cart edited while the job runs is left for the next run
+ * rather than given a total for its old contents.
+ *
+ * Carts are read in pages by cartID, together with the running totals
+ * CartService keeps and their owner's profile, so pricing itself never
+ * touches the database. Each page is priced in parallel on a fork-join pool
+ * against one DiscountSnapshot taken at the start, then the changed
+ * totals are written in one short transaction. The pool is kept to half
+ * the cores by default, and the writer lock is released between pages,
+ * so live checkouts keep getting through while the job runs.
+ */
+public class CartRepricer {
+
+    public static final int DEFAULT_PAGE_SIZE = 1000;
+    private static final int SEQUENTIAL_THRESHOLD = 64;
+    private static final long PROGRESS_INTERVAL_NANOS = 5_000_000_000L;
+
+    // Skipped when live traffic has changed the total since the page was read
+    private static final String UPDATE_SQL =
+            "UPDATE shopping_cart SET discountedTotal = ? WHERE cartID = ? AND discountedTotal IS ?";
+
+    private final DatabaseManager db;
+    private final PricingService pricing;
+    private final int parallelism;
+    private final int pageSize;
+
+    public CartRepricer(DatabaseManager db) {
+        this(db, new PricingService(), Math.max(1, Runtime.getRuntime().availableProcessors() / 2), DEFAULT_PAGE_SIZE);
+    }
+
+    public CartRepricer(DatabaseManager db, PricingService pricing, int parallelism, int pageSize) {
+        if (parallelism < 1 || pageSize < 1) {
+            throw new IllegalArgumentException("parallelism and pageSize must be at least 1");
+        }
+        this.db = db;
+        this.pricing = pricing;
+        this.parallelism = parallelism;
+        this.pageSize = pageSize;
+    }
+
+    public static void main(String[] args) {
+        DatabaseManager db = DatabaseManager.getInstance();
+        if (!db.connect()) {
+            System.err.println("❌ Database connection failed!");
+            return;
+        }
+
+        Report report = new CartRepricer(db).repriceAll();
+        System.out.printf("%n%s %d carts priced, %d totals written in %ds (%.0f carts/sec, discounts v%d)%n",
+                report.completed() ? "✅" : "❌",
+                report.cartsPriced(), report.totalsWritten(),
+                report.elapsed().toSeconds(), report.cartsPerSecond(), report.snapshotVersion());
+
+        db.disconnect();
+    }
+
+    // ============================================================
+    // JOB
+    // ============================================================
+    public Report repriceAll() {
+        DiscountSnapshot discounts = DiscountCatalog.getInstance().current();
+        Run run = new Run(discounts.version());
+        LocalDate today = LocalDate.now();
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism, CartRepricer::workerThread, null, false);
+        try (BatchWriter writer = db.batch(UPDATE_SQL, pageSize)) {
+            long afterCartID = 0;
+            List<OpenCart> page;
+
+            while (!(page = loadPage(afterCartID)).isEmpty()) {
+                double[] totals = new double[page.size()];
+                pool.submit(new PriceTask(page, totals, 0, page.size(), discounts, today)).get();
+
+                // Updates whose old total no longer matches change nothing, so
+                // count the rows changed rather than the updates queued
+                long changedBefore = writer.getResult().rowsChanged();
+                for (int i = 0; i < totals.length; i++) {
+                    OpenCart cart = page.get(i);
+                    if (cart.oldTotal == null || Math.abs(totals[i] - cart.oldTotal) >= 0.005) {
+                        writer.addBatch(totals[i], cart.cartID, cart.oldTotal);
+                    }
+                }
+                writer.executeBatch();
+
+                afterCartID = page.get(page.size() - 1).cartID;
+                run.record(page.size(), writer.getResult().rowsChanged() - changedBefore);
+            }
+
+            BatchWriter.Result result = writer.getResult();
+            if (result.hasErrors()) {
+                System.err.println("❌ " + result.errors().size() + " cart totals could not be written, first: "
+                        + result.errors().get(0).message());
+                return run.report(false);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("❌ Re-pricing interrupted after " + run.cartsPriced + " carts");
+            return run.report(false);
+        } catch (ExecutionException e) {
+            System.err.println("❌ Re-pricing failed after " + run.cartsPriced + " carts: " + e.getCause());
+            return run.report(false);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        return run.report(true);
+    }
+
+    // ============================================================
+    // LOADING (one page of carts, two indexed queries)
+    // ============================================================
+    private static final class OpenCart {
+        final int cartID;
+        final int userID;
+        final double subtotal;
+        final int itemCount;
+        final Double oldTotal;
+        final UserPricingProfile profile;
+        final Map<String, Integer> genres = new HashMap<>();
+
+        OpenCart(int cartID, int userID, double subtotal, int itemCount, Double oldTotal, UserPricingProfile profile) {
+            this.cartID = cartID;
+            this.userID = userID;
+            this.subtotal = subtotal;
+            this.itemCount = itemCount;
+            this.oldTotal = oldTotal;
+            this.profile = profile;
+        }
+
+        CartTotals totals() {
+            return new CartTotals(cartID, userID, subtotal, itemCount, genres, oldTotal != null ? oldTotal : 0.0);
+        }
+    }
+
+    private List<OpenCart> loadPage(long afterCartID) {
+        List<OpenCart> carts = db.query("""
+            SELECT c.cartID, c.userID, c.subtotal, c.itemCount, c.discountedTotal,
+                   u.userID AS knownUser, u.memberType, u.birthDate
+            FROM shopping_cart c
+            LEFT JOIN users u ON u.userID = c.userID
+            WHERE c.cartID > ?
+            ORDER BY c.cartID
+            LIMIT ?
+        """, rs -> {
+            int userID = rs.getInt("userID");
+            UserPricingProfile profile = rs.getObject("knownUser") == null ? null
+                    : UserPricingProfile.of(userID, rs.getString("memberType"),
+                            UserProfileCache.toLocalDate(rs.getObject("birthDate")));
+            Object total = rs.getObject("discountedTotal");
+            return new OpenCart(rs.getInt("cartID"), userID, rs.getDouble("subtotal"), rs.getInt("itemCount"),
+                    total != null ? rs.getDouble("discountedTotal") : null, profile);
+        }, afterCartID, pageSize);
+
+        if (carts.isEmpty()) return carts;
+
+        Map<Integer, OpenCart> byID = new HashMap<>();
+        for (OpenCart cart : carts) {
+            byID.put(cart.cartID, cart);
+        }
+
+        db.query("SELECT cartID, genre, quantity FROM cart_genre_totals WHERE cartID BETWEEN ? AND ?", rs -> {
+            OpenCart cart = byID.get(rs.getInt("cartID"));
+            if (cart != null) cart.genres.put(rs.getString("genre"), rs.getInt("quantity"));
+            return null;
+        }, carts.get(0).cartID, carts.get(carts.size() - 1).cartID);
+
+        return carts;
+    }
+
+    // ============================================================
+    // PRICING (fork-join workers)
+    // ============================================================
+    private final class PriceTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<OpenCart> carts;
+        private final double[] totals;
+        private final int from;
+        private final int to;
+        private final DiscountSnapshot discounts;
+        private final LocalDate today;
+
+        PriceTask(List<OpenCart> carts, double[] totals, int from, int to,
+                  DiscountSnapshot discounts, LocalDate today) {
+            this.carts = carts;
+            this.totals = totals;
+            this.from = from;
+            this.to = to;
+            this.discounts = discounts;
+            this.today = today;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    OpenCart cart = carts.get(i);
+                    totals[i] = pricing.price(new PricingContext(cart.totals(), cart.profile, today), discounts);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new PriceTask(carts, totals, from, mid, discounts, today),
+                    new PriceTask(carts, totals, mid, to, discounts, today));
+        }
+    }
+
+    private static ForkJoinWorkerThread workerThread(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("cart-reprice-" + thread.getPoolIndex());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    // ============================================================
+    // PROGRESS & REPORT
+    // ============================================================
+    private static final class Run {
+        final long snapshotVersion;
+        final long startNanos = System.nanoTime();
+        long lastProgressNanos = startNanos;
+        long cartsPriced;
+        long totalsWritten;
+
+        Run(long snapshotVersion) {
+            this.snapshotVersion = snapshotVersion;
+        }
+
+        void record(long priced, long written) {
+            cartsPriced += priced;
+            totalsWritten += written;
+
+            long now = System.nanoTime();
+            if (now - lastProgressNanos >= PROGRESS_INTERVAL_NANOS) {
+                lastProgressNanos = now;
+                System.out.printf("💲 %d carts priced (%d totals written), %.0f carts/sec%n",
+                        cartsPriced, totalsWritten, report(false).cartsPerSecond());
+            }
+        }
+
+        Report report(boolean completed) {
+            return new Report(cartsPriced, totalsWritten, snapshotVersion,
+                    Duration.ofNanos(System.nanoTime() - startNanos), completed);
+        }
+    }
+
+    /**
+     * totalsWritten counts carts whose total changed; an update is
+     * skipped if the cart's total was changed by a checkout meanwhile.
+     */
+    public record Report(long cartsPriced, long totalsWritten, long snapshotVersion,
+                         Duration elapsed, boolean completed) {
+
+        public double cartsPerSecond() {
+            double seconds = elapsed.toNanos() / 1_000_000_000.0;
+            return seconds > 0 ? cartsPriced / seconds : 0.0;
+        }
+    }
+}
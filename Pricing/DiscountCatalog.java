@@ -0,0 +1,133 @@
+package Pricing;
+
+import com.bookstore.online_bookstore.db.DatabaseManager;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current DiscountSnapshot and swaps in a new one whenever
+ * discounts are changed through this class, and on a fixed interval to
+ * pick up changes made directly in the database. A reload that finds
+ * the same rows keeps the current snapshot.
+ */
+public class DiscountCatalog {
+
+    public static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofSeconds(60);
+
+    private static DiscountCatalog instance;
+
+    private final DatabaseManager db;
+    private final AtomicReference<DiscountSnapshot> current = new AtomicReference<>(DiscountSnapshot.empty());
+    private final AtomicLong versions = new AtomicLong();
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> refreshTask;
+
+    DiscountCatalog(DatabaseManager db) {
+        this.db = db;
+    }
+
+    // ============================================================
+    // SINGLETON
+    // ============================================================
+    public static synchronized DiscountCatalog getInstance() {
+        if (instance == null) {
+            instance = new DiscountCatalog(DatabaseManager.getInstance());
+            instance.refresh();
+            instance.startAutoRefresh(DEFAULT_REFRESH_INTERVAL);
+        }
+        return instance;
+    }
+
+    // ============================================================
+    // SNAPSHOT
+    // ============================================================
+    /**
+     * Snapshot to price against. Take it once per calculation so every
+     * rule sees the same discounts.
+     */
+    public DiscountSnapshot current() {
+        return current.get();
+    }
+
+    /**
+     * Reloads active discounts and swaps them in if they changed; an
+     * unchanged table keeps the current snapshot and its version, so
+     * quotes and compiled rule plans tied to it stay valid. On a
+     * database error the previous snapshot stays in place.
+     */
+    public synchronized boolean refresh() {
+        List<DiscountSnapshot.Discount> discounts = db.query("""
+            SELECT discountID, discountType, targetValue, percentage
+            FROM discounts
+            WHERE active = 1
+            ORDER BY discountID
+        """, rs -> new DiscountSnapshot.Discount(
+                rs.getInt("discountID"),
+                rs.getString("discountType"),
+                rs.getString("targetValue"),
+                rs.getDouble("percentage")));
+
+        // A failed query also comes back empty: make sure there really are none
+        if (discounts.isEmpty()) {
+            Integer active = db.queryOne("SELECT COUNT(*) FROM discounts WHERE active = 1", rs -> rs.getInt(1));
+            if (active == null || active > 0) {
+                System.err.println("❌ Discount refresh failed, keeping snapshot v" + current().version());
+                return false;
+            }
+        }
+
+        if (!discounts.equals(current().discounts())) {
+            current.set(new DiscountSnapshot(versions.incrementAndGet(), discounts));
+        }
+        return true;
+    }
+
+    public synchronized void startAutoRefresh(Duration interval) {
+        if (refreshTask != null) {
+            refreshTask.cancel(false);
+        }
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "discount-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        long millis = interval.toMillis();
+        refreshTask = scheduler.scheduleWithFixedDelay(this::refresh, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopAutoRefresh() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+            refreshTask = null;
+        }
+    }
+
+    // ============================================================
+    // CHANGES (each one publishes a new snapshot)
+    // ============================================================
+    public void addDiscount(String discountType, String targetValue, double percentage) {
+        db.executePrepared(
+                "INSERT INTO discounts (discountType, targetValue, percentage, active) VALUES (?, ?, ?, 1)",
+                discountType, targetValue, percentage);
+        refresh();
+    }
+
+    public void setActive(int discountID, boolean active) {
+        db.executePrepared("UPDATE discounts SET active = ? WHERE discountID = ?", active ? 1 : 0, discountID);
+        refresh();
+    }
+
+    public void setPercentage(int discountID, double percentage) {
+        db.executePrepared("UPDATE discounts SET percentage = ? WHERE discountID = ?", percentage, discountID);
+        refresh();
+    }
+}
@@ -0,0 +1,216 @@
+package Pricing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Finds the best discount for a cart by running the registered rules
+ * against a DiscountSnapshot.
+ *
+ * For each snapshot the rules are compiled into a plan: rules with no
+ * active discounts are dropped, and the rest are ordered cheapest first,
+ * then by the discount they are expected to give (their best percentage
+ * times how often they have applied so far). Evaluation walks the plan's
+ * arrays and stops as soon as no remaining rule can beat the best
+ * percentage found.
+ */
+public class DiscountEngine {
+
+    private static DiscountEngine instance;
+
+    // Registered rules by discountType, in registration order
+    private final Map<String, RuleEntry> rules = new LinkedHashMap<>();
+    private volatile Plan plan;
+
+    private static final class RuleEntry {
+        final DiscountRule rule;
+        final LongAdder evaluations = new LongAdder();
+        final LongAdder applied = new LongAdder();
+        final LongAdder skipped = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+
+        RuleEntry(DiscountRule rule) {
+            this.rule = rule;
+        }
+
+        // Share of evaluations that gave a discount, starting from an even guess
+        double applyRate() {
+            return (applied.sum() + 1.0) / (evaluations.sum() + 2.0);
+        }
+    }
+
+    /**
+     * A compiled plan; remainingMax[i] is the highest percentage any rule
+     * from i onwards could give.
+     */
+    private record Plan(long snapshotVersion, RuleEntry[] entries, double[] maxPercentage, double[] remainingMax) {}
+
+    // ============================================================
+    // SINGLETON
+    // ============================================================
+    public static synchronized DiscountEngine getInstance() {
+        if (instance == null) {
+            instance = new DiscountEngine();
+            StandardRules.all().forEach(instance::register);
+        }
+        return instance;
+    }
+
+    // ============================================================
+    // REGISTRATION
+    // ============================================================
+    /**
+     * Adds rule, replacing any rule already registered for its
+     * discountType. Takes effect from the next calculation.
+     */
+    public synchronized void register(DiscountRule rule) {
+        rules.put(rule.discountType(), new RuleEntry(rule));
+        plan = null;
+    }
+
+    public synchronized void unregister(String discountType) {
+        rules.remove(discountType);
+        plan = null;
+    }
+
+    // ============================================================
+    // COMPILATION
+    // ============================================================
+    private Plan planFor(DiscountSnapshot discounts) {
+        Plan current = plan;
+        if (current != null && current.snapshotVersion() == discounts.version()) {
+            return current;
+        }
+        return compile(discounts);
+    }
+
+    private synchronized Plan compile(DiscountSnapshot discounts) {
+        Plan current = plan;
+        if (current != null && current.snapshotVersion() == discounts.version()) {
+            return current;
+        }
+
+        List<RuleEntry> live = new ArrayList<>();
+        Map<RuleEntry, Double> max = new LinkedHashMap<>();
+        for (RuleEntry entry : rules.values()) {
+            double pct = entry.rule.maxPercentage(discounts);
+            if (pct > 0) {
+                live.add(entry);
+                max.put(entry, pct);
+            }
+        }
+
+        live.sort(Comparator.<RuleEntry>comparingInt(e -> e.rule.cost())
+                .thenComparing(Comparator.<RuleEntry>comparingDouble(e -> max.get(e) * e.applyRate()).reversed()));
+
+        int n = live.size();
+        RuleEntry[] entries = live.toArray(new RuleEntry[0]);
+        double[] maxPercentage = new double[n];
+        double[] remainingMax = new double[n + 1];
+        for (int i = 0; i < n; i++) {
+            maxPercentage[i] = max.get(entries[i]);
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            remainingMax[i] = Math.max(maxPercentage[i], remainingMax[i + 1]);
+        }
+
+        Plan compiled = new Plan(discounts.version(), entries, maxPercentage, remainingMax);
+        plan = compiled;
+        return compiled;
+    }
+
+    // ============================================================
+    // EVALUATION
+    // ============================================================
+    /**
+     * Best percentage any rule gives cart under discounts, or 0. The
+     * rule that gave it is recorded on cart.
+     */
+    public double bestPercentage(PricingContext cart, DiscountSnapshot discounts) {
+        Plan plan = planFor(discounts);
+        RuleEntry[] entries = plan.entries();
+        double[] maxPercentage = plan.maxPercentage();
+        double[] remainingMax = plan.remainingMax();
+
+        double best = 0.0;
+        DiscountRule winner = null;
+        for (int i = 0; i < entries.length; i++) {
+            if (remainingMax[i] <= best) {
+                for (int j = i; j < entries.length; j++) {
+                    entries[j].skipped.increment();
+                }
+                break;
+            }
+            RuleEntry entry = entries[i];
+            if (maxPercentage[i] <= best) {
+                entry.skipped.increment();
+                continue;
+            }
+
+            long start = System.nanoTime();
+            double pct = entry.rule.evaluate(cart, discounts);
+            entry.nanos.add(System.nanoTime() - start);
+            entry.evaluations.increment();
+
+            if (pct > 0) entry.applied.increment();
+            if (pct > best) {
+                best = pct;
+                winner = entry.rule;
+            }
+        }
+        cart.setWinningDiscountType(winner != null ? winner.discountType() : null);
+        return best;
+    }
+
+    // ============================================================
+    // METRICS
+    // ============================================================
+    /**
+     * One entry per registered rule, in the order of the current plan;
+     * rules left out of the plan come last.
+     */
+    public synchronized List<RuleStats> getRuleStats() {
+        List<RuleEntry> ordered = new ArrayList<>();
+        Plan current = plan;
+        if (current != null) {
+            ordered.addAll(Arrays.asList(current.entries()));
+        }
+        for (RuleEntry entry : rules.values()) {
+            if (!ordered.contains(entry)) ordered.add(entry);
+        }
+
+        List<RuleStats> stats = new ArrayList<>();
+        for (RuleEntry entry : ordered) {
+            long evaluations = entry.evaluations.sum();
+            long nanos = entry.nanos.sum();
+            stats.add(new RuleStats(
+                    entry.rule.discountType(),
+                    entry.rule.cost(),
+                    evaluations,
+                    entry.applied.sum(),
+                    entry.skipped.sum(),
+                    nanos / 1_000_000.0,
+                    evaluations > 0 ? nanos / 1000.0 / evaluations : 0.0));
+        }
+        return stats;
+    }
+
+    /**
+     * skipped counts calculations where the rule wasn't run because it
+     * couldn't beat the discount already found.
+     */
+    public record RuleStats(
+            String discountType,
+            int cost,
+            long evaluations,
+            long applied,
+            long skipped,
+            double totalMillis,
+            double meanMicros
+    ) {}
+}
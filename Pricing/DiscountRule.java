@@ -0,0 +1,41 @@
+package Pricing;
+
+/**
+ * One kind of discount, tied to the discounts rows of its discountType.
+ * Register new kinds with DiscountEngine.register; the service doesn't
+ * need to know about them.
+ *
+ * Rules are shared between threads and must not keep per-cart state:
+ * everything about the cart comes from the PricingContext.
+ */
+public interface DiscountRule {
+
+    int COST_ARITHMETIC = 0;
+    int COST_CACHED_LOOKUP = 1;
+    int COST_DATABASE = 2;
+
+    /**
+     * discountType of the discounts rows this rule gives out.
+     */
+    String discountType();
+
+    /**
+     * Relative cost of evaluate, one of the COST_* levels. Cheaper rules
+     * are evaluated first.
+     */
+    int cost();
+
+    /**
+     * Highest percentage evaluate could return against discounts. The
+     * engine skips the rule when this can't beat what it already has.
+     */
+    default double maxPercentage(DiscountSnapshot discounts) {
+        return discounts.maxPercentage(discountType());
+    }
+
+    /**
+     * Percentage of the subtotal this rule takes off the cart, or 0 when
+     * it doesn't apply.
+     */
+    double evaluate(PricingContext cart, DiscountSnapshot discounts);
+}
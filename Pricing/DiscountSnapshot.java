@@ -0,0 +1,129 @@
+package Pricing;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable view of the active rows in the discounts table, indexed by
+ * (discountType, targetValue). Never modified after construction, so any
+ * number of threads can price against it without locking.
+ */
+public final class DiscountSnapshot {
+
+    /**
+     * One active discounts row.
+     */
+    public record Discount(int discountID, String discountType, String targetValue, double percentage) {}
+
+    // Per discount type: the row with no target, the rows per target value,
+    // and the highest percentage any of them gives
+    private record TypeIndex(Discount untargeted, Map<String, Discount> byTarget, double maxPercentage) {}
+
+    private final long version;
+    private final long loadedAtMillis;
+    private final List<Discount> discounts;
+    private final Map<String, TypeIndex> byType;
+
+    public DiscountSnapshot(long version, List<Discount> activeDiscounts) {
+        this.version = version;
+        this.loadedAtMillis = System.currentTimeMillis();
+        this.discounts = List.copyOf(activeDiscounts);
+
+        Map<String, Discount> untargeted = new HashMap<>();
+        Map<String, Map<String, Discount>> targeted = new HashMap<>();
+
+        for (Discount d : discounts) {
+            if (d.targetValue() == null) {
+                untargeted.merge(d.discountType(), d, DiscountSnapshot::lowerId);
+            } else {
+                targeted.computeIfAbsent(d.discountType(), t -> new HashMap<>())
+                        .merge(d.targetValue(), d, DiscountSnapshot::lowerId);
+            }
+        }
+
+        Map<String, TypeIndex> index = new HashMap<>();
+        for (String type : union(untargeted.keySet(), targeted.keySet())) {
+            Discount plain = untargeted.get(type);
+            Map<String, Discount> byTarget = Map.copyOf(targeted.getOrDefault(type, Map.of()));
+
+            double max = plain != null ? plain.percentage() : 0.0;
+            for (Discount d : byTarget.values()) {
+                max = Math.max(max, d.percentage());
+            }
+            index.put(type, new TypeIndex(plain, byTarget, max));
+        }
+        this.byType = Map.copyOf(index);
+    }
+
+    public static DiscountSnapshot empty() {
+        return new DiscountSnapshot(0, List.of());
+    }
+
+    // ============================================================
+    // LOOKUP
+    // ============================================================
+    /**
+     * Percentage of the active discount of discountType that applies to
+     * targetValue (a row with no target applies to every value), or 0.
+     * When several rows match, the lowest discountID wins, the same row
+     * the old per-call SQL lookup returned.
+     */
+    public double percentage(String discountType, String targetValue) {
+        Discount d = find(discountType, targetValue);
+        return d != null ? d.percentage() : 0.0;
+    }
+
+    public Discount find(String discountType, String targetValue) {
+        TypeIndex index = byType.get(discountType);
+        if (index == null) return null;
+
+        Discount targeted = targetValue != null ? index.byTarget().get(targetValue) : null;
+        if (targeted == null) return index.untargeted();
+        if (index.untargeted() == null) return targeted;
+        return lowerId(index.untargeted(), targeted);
+    }
+
+    /**
+     * Upper bound on percentage(discountType, anything); 0 if there are
+     * no active discounts of that type.
+     */
+    public double maxPercentage(String discountType) {
+        TypeIndex index = byType.get(discountType);
+        return index != null ? index.maxPercentage() : 0.0;
+    }
+
+    public boolean hasType(String discountType) {
+        return byType.containsKey(discountType);
+    }
+
+    private static Discount lowerId(Discount a, Discount b) {
+        return a.discountID() <= b.discountID() ? a : b;
+    }
+
+    private static Set<String> union(Set<String> a, Set<String> b) {
+        Set<String> all = new HashSet<>(a);
+        all.addAll(b);
+        return all;
+    }
+
+    // ============================================================
+    // METADATA
+    // ============================================================
+    /**
+     * Increases every time the active discounts change.
+     */
+    public long version() {
+        return version;
+    }
+
+    public long loadedAtMillis() {
+        return loadedAtMillis;
+    }
+
+    public List<Discount> discounts() {
+        return discounts;
+    }
+}
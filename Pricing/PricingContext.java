@@ -0,0 +1,156 @@
+package Pricing;
+
+import com.bookstore.online_bookstore.model.Book;
+import com.bookstore.online_bookstore.model.CartTotals;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The cart being priced, as flat arrays, plus the lookups rules share.
+ * The user's profile and the cart's genres are loaded on first use, so
+ * a calculation only pays for the lookups its rules actually need.
+ * Used by one thread for one calculation.
+ */
+public final class PricingContext {
+
+    private final int userID;
+    private final double subtotal;
+    private final String memberType;
+    private final String[] isbns;
+    private final int[] quantities;
+    private int totalQuantity;
+    private final LocalDate today;
+    private final UserProfileCache userProfiles;
+
+    private UserPricingProfile profile;
+    private boolean profileLoaded;
+    private String[] genres;
+    private String winningDiscountType;
+
+    public PricingContext(int userID, double subtotal, String memberType,
+                          Map<String, Integer> cartItems, UserProfileCache userProfiles) {
+        this(userID, subtotal, memberType, cartItems, userProfiles, LocalDate.now());
+    }
+
+    /**
+     * From a cart's running totals: quantity and genres come straight
+     * from the aggregates, so the cost doesn't grow with the cart. The
+     * per-item accessors see an empty cart.
+     */
+    public PricingContext(CartTotals cart, String memberType, UserProfileCache userProfiles) {
+        this(cart.userID(), cart.subtotal(), memberType, Map.of(), userProfiles, LocalDate.now());
+        this.totalQuantity = cart.itemCount();
+        this.genres = cart.genreQuantities().keySet().toArray(new String[0]);
+    }
+
+    /**
+     * For bulk pricing: like the totals constructor, with the owner's
+     * profile already loaded, so the context does no lookups at all.
+     */
+    public PricingContext(CartTotals cart, UserPricingProfile profile, LocalDate today) {
+        this(cart.userID(), cart.subtotal(), profile != null ? profile.memberType() : null, Map.of(), null, today);
+        this.totalQuantity = cart.itemCount();
+        this.genres = cart.genreQuantities().keySet().toArray(new String[0]);
+        this.profile = profile;
+        this.profileLoaded = true;
+    }
+
+    private PricingContext(int userID, double subtotal, String memberType, Map<String, Integer> cartItems,
+                           UserProfileCache userProfiles, LocalDate today) {
+        this.userID = userID;
+        this.subtotal = subtotal;
+        this.memberType = memberType;
+        this.userProfiles = userProfiles;
+        this.today = today;
+
+        this.isbns = new String[cartItems.size()];
+        this.quantities = new int[cartItems.size()];
+        int i = 0;
+        int total = 0;
+        for (Map.Entry<String, Integer> item : cartItems.entrySet()) {
+            isbns[i] = item.getKey();
+            quantities[i] = item.getValue();
+            total += quantities[i];
+            i++;
+        }
+        this.totalQuantity = total;
+    }
+
+    // ============================================================
+    // CART
+    // ============================================================
+    public int userID() {
+        return userID;
+    }
+
+    public double subtotal() {
+        return subtotal;
+    }
+
+    public String memberType() {
+        return memberType;
+    }
+
+    public LocalDate today() {
+        return today;
+    }
+
+    public int itemCount() {
+        return isbns.length;
+    }
+
+    public String isbn(int item) {
+        return isbns[item];
+    }
+
+    public int quantity(int item) {
+        return quantities[item];
+    }
+
+    public int totalQuantity() {
+        return totalQuantity;
+    }
+
+    // ============================================================
+    // SHARED LOOKUPS (loaded once per calculation)
+    // ============================================================
+    /**
+     * The user's cached pricing profile, or null for an unknown user.
+     */
+    public UserPricingProfile profile() {
+        if (!profileLoaded) {
+            profile = userProfiles.get(userID);
+            profileLoaded = true;
+        }
+        return profile;
+    }
+
+    /**
+     * Distinct genres of the books in the cart, resolved in one query.
+     */
+    public String[] genres() {
+        if (genres == null) {
+            Set<String> distinct = new HashSet<>(Book.getGenresByIsbn(Arrays.asList(isbns)).values());
+            genres = distinct.toArray(new String[0]);
+        }
+        return genres;
+    }
+
+    // ============================================================
+    // RESULT
+    // ============================================================
+    /**
+     * discountType of the rule that gave the best discount, or null if
+     * none applied. Set once the cart has been priced.
+     */
+    public String winningDiscountType() {
+        return winningDiscountType;
+    }
+
+    void setWinningDiscountType(String discountType) {
+        this.winningDiscountType = discountType;
+    }
+}
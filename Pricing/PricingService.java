@@ -1,18 +1,20 @@
 package Pricing;
 
-import com.bookstore.online_bookstore.db.DatabaseManager;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.time.LocalDate;
-import java.time.Period;
+import com.bookstore.online_bookstore.model.CartTotals;
 import java.util.Map;
 
 public class PricingService {
 
-    private final DatabaseManager db;
+    private final DiscountCatalog discountCatalog;
+    private final UserProfileCache userProfiles;
+    private final DiscountEngine discountEngine;
+    private final QuoteCache quotes;
 
     public PricingService() {
-        this.db = DatabaseManager.getInstance();
+        this.discountCatalog = DiscountCatalog.getInstance();
+        this.userProfiles = UserProfileCache.getInstance();
+        this.discountEngine = DiscountEngine.getInstance();
+        this.quotes = QuoteCache.getInstance();
     }
 
     // ============================================================
@@ -25,123 +27,55 @@ public class PricingService {
             Map<String, Integer> cartItems
     ) {
 
-        double bestDiscount = 0.0;
-
-        bestDiscount = Math.max(bestDiscount,
-                getPremiumDiscount(subtotal, memberType));
-
-        bestDiscount = Math.max(bestDiscount,
-                getStudentDiscount(subtotal, userID));
-
-        bestDiscount = Math.max(bestDiscount,
-                getGenreDiscount(subtotal, cartItems));
-
-        bestDiscount = Math.max(bestDiscount,
-                getBundleDiscount(subtotal, cartItems));
-
-        return subtotal - bestDiscount;
+        return quote(userID, subtotal, memberType, cartItems).finalPrice();
     }
 
-    // ============================================================
-    // PREMIUM MEMBER DISCOUNT
-    // ============================================================
-    private double getPremiumDiscount(double subtotal, String memberType) {
-        if (!"PREMIUM".equalsIgnoreCase(memberType)) return 0.0;
-        return getPercentageDiscount("PREMIUM_MEMBER", null, subtotal);
+    /**
+     * Final price and winning discount for the cart. Repeat calls for an
+     * unchanged cart under the same discounts are answered from QuoteCache.
+     */
+    public Quote quote(int userID, double subtotal, String memberType, Map<String, Integer> cartItems) {
+
+        // One snapshot for the whole calculation: no discount queries
+        DiscountSnapshot discounts = discountCatalog.current();
+
+        return quotes.get(userID, memberType, subtotal, cartItems, discounts.version(), () -> {
+            PricingContext cart = new PricingContext(userID, subtotal, memberType, cartItems, userProfiles);
+            double bestPercentage = discountEngine.bestPercentage(cart, discounts);
+            return new Quote(subtotal, applyPercentage(subtotal, bestPercentage),
+                    cart.winningDiscountType(), bestPercentage, discounts.version());
+        });
     }
 
-    // ============================================================
-    // STUDENT DISCOUNT (AGE 7–24)
-    // ============================================================
-    private double getStudentDiscount(double subtotal, int userID) {
-        if (!isStudentByAge(userID)) return 0.0;
-        return getPercentageDiscount("STUDENT", null, subtotal);
+    /**
+     * Final price of cart under the given snapshot, for callers pricing
+     * many carts against the same discounts. Never cached.
+     */
+    public double price(PricingContext cart, DiscountSnapshot discounts) {
+        return applyPercentage(cart.subtotal(), discountEngine.bestPercentage(cart, discounts));
     }
 
-    private boolean isStudentByAge(int userID) {
-
-        ResultSet rs = db.executeQuery(
-                "SELECT birthDate FROM users WHERE userID = ?", userID
-        );
-
-        try {
-            if (rs != null && rs.next()) {
-                LocalDate birth = rs.getDate("birthDate").toLocalDate();
-                int age = Period.between(birth, LocalDate.now()).getYears();
-                return age >= 7 && age <= 24;
-            }
-        } catch (Exception ignored) {}
-
-        return false;
+    private static double applyPercentage(double subtotal, double percentage) {
+        return subtotal - subtotal * (percentage / 100.0);
     }
 
-    // ============================================================
-    // GENRE DISCOUNT
-    // ============================================================
-    private double getGenreDiscount(double subtotal, Map<String, Integer> cartItems) {
-
-        double maxDiscount = 0.0;
-
-        for (String isbn : cartItems.keySet()) {
-            String genre = getBookGenre(isbn);
-            if (genre == null) continue;
-
-            double discount = getPercentageDiscount(
-                    "BOOK_GENRE", genre, subtotal
-            );
-
-            maxDiscount = Math.max(maxDiscount, discount);
-        }
-
-        return maxDiscount;
+    /**
+     * Price of a cart kept by CartService, from its running totals. Made
+     * to be CartService's pricer, so totalPrice stays discounted.
+     */
+    public double calculateFinalPrice(CartTotals cart) {
+        UserPricingProfile profile = userProfiles.get(cart.userID());
+        String memberType = profile != null ? profile.memberType() : null;
+        return price(new PricingContext(cart, memberType, userProfiles), discountCatalog.current());
     }
 
-    // ============================================================
-    // BUNDLE DISCOUNT (≥ 3 BOOKS)
-    // ============================================================
-    private double getBundleDiscount(double subtotal, Map<String, Integer> cartItems) {
-
-        int totalBooks = cartItems.values().stream().mapToInt(i -> i).sum();
-        if (totalBooks < 3) return 0.0;
-
-        return getPercentageDiscount("BUNDLE", null, subtotal);
-    }
-
-    // ============================================================
-    // CORE DISCOUNT FETCH
-    // ============================================================
-    private double getPercentageDiscount(
-            String discountType,
-            String targetValue,
-            double subtotal
-    ) {
-
-        ResultSet rs = db.executeQuery("""
-            SELECT percentage FROM discounts
-            WHERE discountType = ?
-            AND active = 1
-            AND (targetValue IS NULL OR targetValue = ?)
-        """, discountType, targetValue);
-
-        try {
-            if (rs != null && rs.next()) {
-                return subtotal * (rs.getDouble("percentage") / 100.0);
-            }
-        } catch (SQLException ignored) {}
-
-        return 0.0;
-    }
-
-    private String getBookGenre(String isbn) {
-
-        ResultSet rs = db.executeQuery(
-                "SELECT genre FROM books WHERE isbn = ?", isbn
-        );
-
-        try {
-            return (rs != null && rs.next()) ? rs.getString("genre") : null;
-        } catch (SQLException e) {
-            return null;
-        }
+    /**
+     * Prices with the member type from the user's cached profile rather
+     * than one supplied by the caller.
+     */
+    public double calculateFinalPrice(int userID, double subtotal, Map<String, Integer> cartItems) {
+        UserPricingProfile profile = userProfiles.get(userID);
+        String memberType = profile != null ? profile.memberType() : null;
+        return calculateFinalPrice(userID, subtotal, memberType, cartItems);
     }
 }
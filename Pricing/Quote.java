@@ -0,0 +1,18 @@
+package Pricing;
+
+/**
+ * A priced cart: what the customer pays and which discount won.
+ * discountType is null and discountPercentage 0 when no discount applied.
+ */
+public record Quote(
+        double subtotal,
+        double finalPrice,
+        String discountType,
+        double discountPercentage,
+        long snapshotVersion
+) {
+
+    public double discountAmount() {
+        return subtotal - finalPrice;
+    }
+}
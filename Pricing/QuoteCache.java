@@ -0,0 +1,106 @@
+package Pricing;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived memo of recent quotes, for checkout pages that price the
+ * same cart several times in a row.
+ *
+ * The key covers the user, member type, subtotal, a fingerprint of the
+ * cart's items and the discount snapshot version, so a changed cart or a
+ * new snapshot simply misses. Entries keep a copy of the items, which is
+ * compared on every hit in case two carts share a fingerprint.
+ */
+public class QuoteCache {
+
+    public static final long DEFAULT_MAX_SIZE = 10_000;
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(2);
+
+    private static QuoteCache instance;
+
+    private record Key(int userID, String memberType, long subtotalBits, long fingerprint, long snapshotVersion) {}
+
+    private record Entry(Map<String, Integer> items, Quote quote) {}
+
+    private final Cache<Key, Entry> cache;
+
+    public QuoteCache(long maxSize, Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public static synchronized QuoteCache getInstance() {
+        if (instance == null) {
+            instance = new QuoteCache(DEFAULT_MAX_SIZE, DEFAULT_TTL);
+        }
+        return instance;
+    }
+
+    // ============================================================
+    // LOOKUP
+    // ============================================================
+    public Quote get(int userID, String memberType, double subtotal, Map<String, Integer> cartItems,
+                     long snapshotVersion, Supplier<Quote> pricer) {
+        Key key = new Key(userID, memberType, Double.doubleToLongBits(subtotal),
+                fingerprint(cartItems), snapshotVersion);
+
+        Entry entry = cache.get(key, k -> new Entry(Map.copyOf(cartItems), pricer.get()));
+        if (entry.items().equals(cartItems)) {
+            return entry.quote();
+        }
+
+        // Fingerprint collision: price this cart and let it take the slot
+        Entry replacement = new Entry(Map.copyOf(cartItems), pricer.get());
+        cache.put(key, replacement);
+        return replacement.quote();
+    }
+
+    /**
+     * Order-independent 64-bit hash of the cart's (isbn, quantity) pairs.
+     * String.hashCode is fixed by the language spec, so the value is the
+     * same in every JVM.
+     */
+    static long fingerprint(Map<String, Integer> cartItems) {
+        long hash = cartItems.size();
+        for (Map.Entry<String, Integer> item : cartItems.entrySet()) {
+            long h = item.getKey().hashCode() * 0x9E3779B97F4A7C15L + item.getValue();
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            hash += h;
+        }
+        return hash;
+    }
+
+    // ============================================================
+    // INVALIDATION
+    // ============================================================
+    /**
+     * Drops every quote for userID, e.g. after their profile changed.
+     */
+    public void invalidateUser(int userID) {
+        cache.asMap().keySet().removeIf(key -> key.userID() == userID);
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    // ============================================================
+    // METRICS
+    // ============================================================
+    public Stats getStats() {
+        CacheStats stats = cache.stats();
+        return new Stats(cache.estimatedSize(), stats.hitCount(), stats.missCount(), stats.hitRate());
+    }
+
+    public record Stats(long size, long hits, long misses, double hitRate) {}
+}
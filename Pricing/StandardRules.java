@@ -0,0 +1,110 @@
+package Pricing;
+
+import java.util.List;
+
+/**
+ * The discount kinds the bookstore has always offered.
+ */
+public final class StandardRules {
+
+    public static final int BUNDLE_MIN_BOOKS = 3;
+
+    private StandardRules() {
+    }
+
+    public static List<DiscountRule> all() {
+        return List.of(new PremiumMember(), new Bundle(), new Student(), new BookGenre());
+    }
+
+    // ============================================================
+    // PREMIUM MEMBER DISCOUNT
+    // ============================================================
+    public static final class PremiumMember implements DiscountRule {
+
+        @Override
+        public String discountType() {
+            return "PREMIUM_MEMBER";
+        }
+
+        @Override
+        public int cost() {
+            return COST_ARITHMETIC;
+        }
+
+        @Override
+        public double evaluate(PricingContext cart, DiscountSnapshot discounts) {
+            if (!"PREMIUM".equalsIgnoreCase(cart.memberType())) return 0.0;
+            return discounts.percentage(discountType(), null);
+        }
+    }
+
+    // ============================================================
+    // BUNDLE DISCOUNT (≥ 3 BOOKS)
+    // ============================================================
+    public static final class Bundle implements DiscountRule {
+
+        @Override
+        public String discountType() {
+            return "BUNDLE";
+        }
+
+        @Override
+        public int cost() {
+            return COST_ARITHMETIC;
+        }
+
+        @Override
+        public double evaluate(PricingContext cart, DiscountSnapshot discounts) {
+            if (cart.totalQuantity() < BUNDLE_MIN_BOOKS) return 0.0;
+            return discounts.percentage(discountType(), null);
+        }
+    }
+
+    // ============================================================
+    // STUDENT DISCOUNT (AGE 7–24)
+    // ============================================================
+    public static final class Student implements DiscountRule {
+
+        @Override
+        public String discountType() {
+            return "STUDENT";
+        }
+
+        @Override
+        public int cost() {
+            return COST_CACHED_LOOKUP;
+        }
+
+        @Override
+        public double evaluate(PricingContext cart, DiscountSnapshot discounts) {
+            UserPricingProfile profile = cart.profile();
+            if (profile == null || !profile.isStudentOn(cart.today())) return 0.0;
+            return discounts.percentage(discountType(), null);
+        }
+    }
+
+    // ============================================================
+    // GENRE DISCOUNT
+    // ============================================================
+    public static final class BookGenre implements DiscountRule {
+
+        @Override
+        public String discountType() {
+            return "BOOK_GENRE";
+        }
+
+        @Override
+        public int cost() {
+            return COST_DATABASE;
+        }
+
+        @Override
+        public double evaluate(PricingContext cart, DiscountSnapshot discounts) {
+            double max = 0.0;
+            for (String genre : cart.genres()) {
+                max = Math.max(max, discounts.percentage(discountType(), genre));
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package Pricing;
+
+import java.time.LocalDate;
+
+/**
+ * What pricing needs to know about a user, worked out once when the
+ * profile is loaded. The student window is stored as dates, so checking
+ * eligibility is a comparison instead of an age calculation.
+ *
+ * studentFrom is the 7th birthday and studentUntil the 25th (exclusive);
+ * both are null when the birth date is unknown.
+ */
+public record UserPricingProfile(
+        int userID,
+        String memberType,
+        LocalDate studentFrom,
+        LocalDate studentUntil
+) {
+
+    public static final int STUDENT_MIN_AGE = 7;
+    public static final int STUDENT_MAX_AGE = 24;
+
+    public static UserPricingProfile of(int userID, String memberType, LocalDate birthDate) {
+        if (birthDate == null) {
+            return new UserPricingProfile(userID, memberType, null, null);
+        }
+        return new UserPricingProfile(userID, memberType,
+                birthDate.plusYears(STUDENT_MIN_AGE),
+                birthDate.plusYears(STUDENT_MAX_AGE + 1));
+    }
+
+    public boolean isPremium() {
+        return "PREMIUM".equalsIgnoreCase(memberType);
+    }
+
+    public boolean isStudentOn(LocalDate date) {
+        return studentFrom != null && !date.isBefore(studentFrom) && date.isBefore(studentUntil);
+    }
+}
@@ -0,0 +1,123 @@
+package Pricing;
+
+import com.bookstore.online_bookstore.db.DatabaseManager;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+
+/**
+ * Pricing profiles by userID, loaded from the users table on first use.
+ * Changes made through this class invalidate the user's entry; the TTL
+ * bounds how long a change made directly in the database goes unseen.
+ * Unknown users are cached too, with a shorter TTL.
+ */
+public class UserProfileCache {
+
+    public static final long DEFAULT_MAX_SIZE = 50_000;
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+    public static final Duration DEFAULT_NEGATIVE_TTL = Duration.ofSeconds(30);
+
+    private static UserProfileCache instance;
+
+    private final DatabaseManager db;
+    private final Cache<Integer, Optional<UserPricingProfile>> cache;
+
+    public UserProfileCache(DatabaseManager db, long maxSize, Duration ttl, Duration negativeTtl) {
+        this.db = db;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.<Integer, Optional<UserPricingProfile>>creating(
+                        (userID, profile) -> profile.isPresent() ? ttl : negativeTtl))
+                .recordStats()
+                .build();
+    }
+
+    // ============================================================
+    // SINGLETON
+    // ============================================================
+    public static synchronized UserProfileCache getInstance() {
+        if (instance == null) {
+            instance = new UserProfileCache(DatabaseManager.getInstance(),
+                    DEFAULT_MAX_SIZE, DEFAULT_TTL, DEFAULT_NEGATIVE_TTL);
+        }
+        return instance;
+    }
+
+    // ============================================================
+    // LOOKUP
+    // ============================================================
+    /**
+     * Profile for userID, or null when there is no such user.
+     */
+    public UserPricingProfile get(int userID) {
+        return cache.get(userID, id -> Optional.ofNullable(load(id))).orElse(null);
+    }
+
+    private UserPricingProfile load(int userID) {
+        return db.queryOne(
+                "SELECT memberType, birthDate FROM users WHERE userID = ?",
+                rs -> UserPricingProfile.of(userID, rs.getString("memberType"),
+                        toLocalDate(rs.getObject("birthDate"))),
+                userID
+        );
+    }
+
+    /**
+     * birthDate is usually 'YYYY-MM-DD' text, but rows written with
+     * setDate hold epoch milliseconds instead.
+     */
+    static LocalDate toLocalDate(Object value) {
+        if (value == null) return null;
+        if (value instanceof Number millis) {
+            return Instant.ofEpochMilli(millis.longValue()).atZone(ZoneId.systemDefault()).toLocalDate();
+        }
+        String text = value.toString().strip();
+        if (text.isEmpty()) return null;
+        try {
+            return LocalDate.parse(text.length() > 10 ? text.substring(0, 10) : text);
+        } catch (DateTimeParseException e) {
+            System.err.println("⚠️ Unreadable birthDate '" + text + "', treating it as unknown");
+            return null;
+        }
+    }
+
+    // ============================================================
+    // CHANGES (each one invalidates the user's profile)
+    // ============================================================
+    public void setMemberType(int userID, String memberType) {
+        db.executePrepared("UPDATE users SET memberType = ? WHERE userID = ?", memberType, userID);
+        invalidate(userID);
+    }
+
+    public void setBirthDate(int userID, LocalDate birthDate) {
+        db.executePrepared("UPDATE users SET birthDate = ? WHERE userID = ?",
+                birthDate != null ? birthDate.toString() : null, userID);
+        invalidate(userID);
+    }
+
+    public void invalidate(int userID) {
+        cache.invalidate(userID);
+        QuoteCache.getInstance().invalidateUser(userID);
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    // ============================================================
+    // METRICS
+    // ============================================================
+    public Stats getStats() {
+        CacheStats stats = cache.stats();
+        return new Stats(cache.estimatedSize(), stats.hitCount(), stats.missCount(), stats.hitRate());
+    }
+
+    public record Stats(long size, long hits, long misses, double hitRate) {}
+}
@@ -0,0 +1,106 @@
+package com.bookstore.online_bookstore.benchmarks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bookstore.online_bookstore.model.Book;
+import com.bookstore.online_bookstore.model.BookCache;
+import com.bookstore.online_bookstore.model.BookSearch;
+
+/**
+ * CatalogBenchmark
+ * The Book read paths the storefront uses: title/author search, both
+ * substring and ranked full-text, single-book lookup with a warm and a
+ * disabled cache, and the full catalog listing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CatalogBenchmark {
+
+    // Lookups draw from this many ISBNs, so they stay in a warm cache
+    private static final int HOT_BOOKS = 1_000;
+
+    private final Random random = new Random(7);
+    private final Book books = new Book(null, null, null, null, null, 0, null, 0, null, null);
+    private CatalogFixture fixture;
+
+    @Setup(Level.Trial)
+    public void setUp(CatalogFixture fixture) {
+        this.fixture = fixture;
+    }
+
+    /**
+     * Forks that use this state get a cache that keeps nothing.
+     */
+    @State(Scope.Benchmark)
+    public static class NoCache {
+        @Setup(Level.Trial)
+        public void disableCache() {
+            BookCache.configure(0, Duration.ofMinutes(10), Duration.ofSeconds(30));
+        }
+    }
+
+    // ============================================================
+    // SEARCH
+    // ============================================================
+    @Benchmark
+    public List<Book> searchByTitle() {
+        return books.searchByTitle(Fixtures.word(random));
+    }
+
+    @Benchmark
+    public List<Book> searchByTitleRanked() {
+        return books.searchByTitleRanked(Fixtures.word(random) + " " + Fixtures.word(random).substring(0, 3),
+                BookSearch.DEFAULT_LIMIT);
+    }
+
+    @Benchmark
+    public List<Book> searchByAuthor() {
+        return books.searchByAuthor(Fixtures.author(random.nextInt(500)));
+    }
+
+    @Benchmark
+    public List<Book> searchByAuthorRanked() {
+        return books.searchByAuthorRanked(Fixtures.author(random.nextInt(500)), BookSearch.DEFAULT_LIMIT);
+    }
+
+    // ============================================================
+    // LOOKUP
+    // ============================================================
+    @Benchmark
+    public Book getBookByIsbnCached() {
+        return books.getBookByIsbn(Fixtures.isbn(random.nextInt(Math.min(HOT_BOOKS, fixture.books))));
+    }
+
+    @Benchmark
+    public Book getBookByIsbnUncached(NoCache noCache) {
+        return books.getBookByIsbn(fixture.randomIsbn(random));
+    }
+
+    // ============================================================
+    // LISTING
+    // ============================================================
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Book> getAllBooks() {
+        return books.getAllBooks();
+    }
+}
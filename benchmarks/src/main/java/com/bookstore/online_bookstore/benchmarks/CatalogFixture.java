@@ -0,0 +1,41 @@
+package com.bookstore.online_bookstore.benchmarks;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.bookstore.online_bookstore.db.DatabaseManager;
+
+/**
+ * CatalogFixture
+ * The generated database every benchmark runs against. Change its size
+ * with -p books=N.
+ */
+@State(Scope.Benchmark)
+public class CatalogFixture {
+
+    @Param("10000")
+    public int books;
+
+    public DatabaseManager db;
+
+    @Setup(Level.Trial)
+    public void open() {
+        db = Fixtures.open(books);
+    }
+
+    // ============================================================
+    // INPUTS (drawn per invocation from a per-thread Random)
+    // ============================================================
+    public String randomIsbn(Random random) {
+        return Fixtures.isbn(random.nextInt(books));
+    }
+
+    public int randomUserID(Random random) {
+        return 1 + random.nextInt(Fixtures.USERS);
+    }
+}
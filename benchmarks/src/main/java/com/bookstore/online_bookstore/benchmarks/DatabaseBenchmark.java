@@ -0,0 +1,110 @@
+package com.bookstore.online_bookstore.benchmarks;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bookstore.online_bookstore.db.DatabaseManager;
+import com.bookstore.online_bookstore.model.Book;
+import com.bookstore.online_bookstore.model.BookPage;
+import com.bookstore.online_bookstore.model.BookSort;
+
+/**
+ * DatabaseBenchmark
+ * DatabaseManager's query paths on the same lookups, so the cost of
+ * each API (mapped rows vs. detached CachedRowSet) can be compared,
+ * plus keyset paging and the bulk genre lookup used by pricing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DatabaseBenchmark {
+
+    private static final int RANGE = 100;
+
+    private final Random random = new Random(11);
+    private final Book books = new Book(null, null, null, null, null, 0, null, 0, null, null);
+    private CatalogFixture fixture;
+    private DatabaseManager db;
+
+    @Setup(Level.Trial)
+    public void setUp(CatalogFixture fixture) {
+        this.fixture = fixture;
+        this.db = fixture.db;
+    }
+
+    // ============================================================
+    // SINGLE ROW
+    // ============================================================
+    @Benchmark
+    public String queryOneByPrimaryKey() {
+        return db.queryOne("SELECT title FROM books WHERE isbn = ?", rs -> rs.getString(1),
+                fixture.randomIsbn(random));
+    }
+
+    @Benchmark
+    public String executeQueryByPrimaryKey() throws SQLException {
+        try (ResultSet rs = db.executeQuery("SELECT title FROM books WHERE isbn = ?", fixture.randomIsbn(random))) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    // ============================================================
+    // RANGES
+    // ============================================================
+    @Benchmark
+    public List<String> queryRange() {
+        String from = Fixtures.isbn(random.nextInt(Math.max(1, fixture.books - RANGE)));
+        return db.query("SELECT title FROM books WHERE isbn >= ? ORDER BY isbn LIMIT ?",
+                rs -> rs.getString(1), from, RANGE);
+    }
+
+    @Benchmark
+    public List<String> executeQueryRange() throws SQLException {
+        String from = Fixtures.isbn(random.nextInt(Math.max(1, fixture.books - RANGE)));
+        List<String> titles = new ArrayList<>(RANGE);
+        try (ResultSet rs = db.executeQuery("SELECT title FROM books WHERE isbn >= ? ORDER BY isbn LIMIT ?",
+                from, RANGE)) {
+            while (rs.next()) {
+                titles.add(rs.getString(1));
+            }
+        }
+        return titles;
+    }
+
+    @Benchmark
+    public BookPage listBooksPage() {
+        return books.listBooks(BookSort.ISBN, null, RANGE);
+    }
+
+    // ============================================================
+    // BULK LOOKUP
+    // ============================================================
+    @Benchmark
+    public Map<String, String> genresForFortyItemCart() {
+        List<String> isbns = new ArrayList<>(40);
+        for (int i = 0; i < 40; i++) {
+            isbns.add(fixture.randomIsbn(random));
+        }
+        return Book.getGenresByIsbn(isbns);
+    }
+}
@@ -0,0 +1,142 @@
+package com.bookstore.online_bookstore.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.bookstore.online_bookstore.db.BatchWriter;
+import com.bookstore.online_bookstore.db.DatabaseManager;
+import com.bookstore.online_bookstore.db.SchemaMigrator;
+import com.bookstore.online_bookstore.model.Book;
+
+/**
+ * Fixtures
+ * Generated SQLite catalogs for the benchmarks, one file per size under
+ * target/fixtures (override with -Dbookstore.bench.fixtures=DIR).
+ * Content is seeded, so every run at a given size sees the same data,
+ * and a file is only rebuilt when it doesn't hold the expected rows.
+ */
+public final class Fixtures {
+
+    public static final int USERS = 1_000;
+    private static final long SEED = 42;
+
+    static final String[] GENRES = {
+            "Fantasy", "Science Fiction", "Mystery", "Romance", "History", "Biography",
+            "Children", "Poetry", "Travel", "Cooking", "Business", "Horror"
+    };
+    static final String[] TITLE_WORDS = {
+            "shadow", "river", "empire", "garden", "winter", "secret", "silver", "night",
+            "storm", "kingdom", "harbor", "memory", "glass", "forest", "voyage", "ember",
+            "crown", "letter", "island", "engine", "lantern", "orchard", "signal", "tide"
+    };
+    static final String[] FIRST_NAMES = {
+            "Ada", "Bruno", "Clara", "Dmitri", "Elena", "Farah", "Goran", "Hana", "Ivan", "Julia",
+            "Kenji", "Lena", "Marco", "Nadia", "Omar", "Priya", "Quinn", "Rosa", "Sven", "Tariq"
+    };
+    static final String[] LAST_NAMES = {
+            "Abbott", "Berg", "Castillo", "Duarte", "Eklund", "Fischer", "Gupta", "Haddad",
+            "Ito", "Jensen", "Kowalski", "Larsen", "Moreau", "Novak", "Okafor", "Petrov",
+            "Quint", "Rossi", "Sato", "Tanaka", "Ueda", "Varga", "Weber", "Yilmaz", "Zimmer"
+    };
+
+    private Fixtures() {
+    }
+
+    public static String isbn(int index) {
+        return String.format("978%010d", index);
+    }
+
+    public static String author(int index) {
+        return FIRST_NAMES[index % FIRST_NAMES.length] + " " + LAST_NAMES[(index / FIRST_NAMES.length) % LAST_NAMES.length];
+    }
+
+    // ============================================================
+    // OPEN
+    // ============================================================
+    /**
+     * Points DatabaseManager at the fixture with the given number of
+     * books, building it first if needed, and connects in pooled mode.
+     */
+    public static DatabaseManager open(int books) {
+        File dir = new File(System.getProperty("bookstore.bench.fixtures", "target/fixtures"));
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IllegalStateException("Cannot create fixture directory " + dir);
+        }
+        File file = new File(dir, "bookstore-" + books + ".db");
+        System.setProperty(DatabaseManager.DB_FILE_PROPERTY, file.getPath());
+
+        DatabaseManager db = DatabaseManager.getInstance();
+        if (!db.connectPooled(4, 5000)) {
+            throw new IllegalStateException("Cannot open fixture " + file);
+        }
+        if (!new SchemaMigrator(db).migrate()) {
+            throw new IllegalStateException("Cannot migrate fixture " + file);
+        }
+
+        if (db.getTableRowCount("books") != books || db.getTableRowCount("users") != USERS) {
+            System.out.println("🏗️  Building fixture " + file + " (" + books + " books)");
+            populate(db, books);
+        }
+        return db;
+    }
+
+    // ============================================================
+    // GENERATION
+    // ============================================================
+    private static void populate(DatabaseManager db, int books) {
+        db.executeUpdate("DELETE FROM cart_items");
+        db.executeUpdate("DELETE FROM shopping_cart");
+        db.executeUpdate("DELETE FROM books");
+        db.executeUpdate("DELETE FROM users");
+        db.executeUpdate("DELETE FROM discounts");
+
+        Random random = new Random(SEED);
+        List<Book> batch = new ArrayList<>(BatchWriter.DEFAULT_CHUNK_SIZE);
+        for (int i = 0; i < books; i++) {
+            String title = word(random) + " " + word(random) + " " + word(random);
+            Book book = new Book(isbn(i), null, capitalize(title), author(random.nextInt(500)),
+                    "Fixture Press", 1950 + random.nextInt(75), "English", 80 + random.nextInt(700),
+                    "Paperback", GENRES[random.nextInt(GENRES.length)]);
+            book.setPrice(5 + random.nextInt(5500) / 100.0);
+            book.setStock(random.nextInt(50));
+            book.setDescription("A story of " + word(random) + " and " + word(random) + ".");
+            batch.add(book);
+
+            if (batch.size() == BatchWriter.DEFAULT_CHUNK_SIZE) {
+                Book.saveBooks(batch);
+                batch.clear();
+            }
+        }
+        Book.saveBooks(batch);
+
+        try (BatchWriter users = db.batch(
+                "INSERT INTO users (userID, email, role, memberType, birthDate) VALUES (?, ?, 'MEMBER', ?, ?)")) {
+            for (int id = 1; id <= USERS; id++) {
+                String birthDate = String.format("%d-%02d-%02d",
+                        1950 + random.nextInt(65), 1 + random.nextInt(12), 1 + random.nextInt(28));
+                users.addBatch(id, "user" + id + "@example.com",
+                        random.nextInt(4) == 0 ? "PREMIUM" : "STANDARD", birthDate);
+            }
+        }
+
+        try (BatchWriter discounts = db.batch(
+                "INSERT INTO discounts (discountType, targetValue, percentage, active) VALUES (?, ?, ?, 1)")) {
+            discounts.addBatch("PREMIUM_MEMBER", null, 10.0);
+            discounts.addBatch("STUDENT", null, 15.0);
+            discounts.addBatch("BUNDLE", null, 5.0);
+            for (int i = 0; i < GENRES.length; i += 3) {
+                discounts.addBatch("BOOK_GENRE", GENRES[i], 8.0 + i);
+            }
+        }
+    }
+
+    static String word(Random random) {
+        return TITLE_WORDS[random.nextInt(TITLE_WORDS.length)];
+    }
+
+    private static String capitalize(String text) {
+        return Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+}
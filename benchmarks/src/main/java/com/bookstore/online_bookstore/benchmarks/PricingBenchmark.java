@@ -0,0 +1,82 @@
+package com.bookstore.online_bookstore.benchmarks;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import Pricing.DiscountCatalog;
+import Pricing.PricingContext;
+import Pricing.PricingService;
+import Pricing.UserProfileCache;
+
+/**
+ * PricingBenchmark
+ * PricingService.calculateFinalPrice for carts of different sizes.
+ * Carts are generated up front and cycled through, so the benchmark
+ * measures pricing rather than building carts. After the first pass
+ * calculateFinalPrice is answered from the quote cache; priceUncached
+ * runs the discount rules every time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PricingBenchmark {
+
+    private static final int CARTS = 256;
+
+    @Param({"1", "5", "20", "50"})
+    public int cartSize;
+
+    private PricingService pricing;
+    private final Cart[] carts = new Cart[CARTS];
+    private int next;
+
+    private record Cart(int userID, String memberType, double subtotal, Map<String, Integer> items) {}
+
+    @Setup(Level.Trial)
+    public void setUp(CatalogFixture fixture) {
+        pricing = new PricingService();
+
+        Random random = new Random(cartSize);
+        for (int i = 0; i < CARTS; i++) {
+            Map<String, Integer> items = new LinkedHashMap<>();
+            while (items.size() < cartSize) {
+                items.put(fixture.randomIsbn(random), 1 + random.nextInt(3));
+            }
+            carts[i] = new Cart(fixture.randomUserID(random),
+                    random.nextInt(4) == 0 ? "PREMIUM" : "STANDARD",
+                    10 + random.nextInt(40 * cartSize), items);
+        }
+    }
+
+    @Benchmark
+    public double calculateFinalPrice() {
+        Cart cart = carts[next++ & (CARTS - 1)];
+        return pricing.calculateFinalPrice(cart.userID(), cart.subtotal(), cart.memberType(), cart.items());
+    }
+
+    @Benchmark
+    public double priceUncached() {
+        Cart cart = carts[next++ & (CARTS - 1)];
+        PricingContext context = new PricingContext(cart.userID(), cart.subtotal(), cart.memberType(),
+                cart.items(), UserProfileCache.getInstance());
+        return pricing.price(context, DiscountCatalog.getInstance().current());
+    }
+}
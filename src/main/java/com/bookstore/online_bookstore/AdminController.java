@@ -0,0 +1,84 @@
+package com.bookstore.online_bookstore;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.bookstore.online_bookstore.catalog.CatalogStores;
+import com.bookstore.online_bookstore.covers.CoverPipeline;
+import com.bookstore.online_bookstore.db.DatabaseBulkhead;
+import com.bookstore.online_bookstore.db.DatabaseManager;
+import com.bookstore.online_bookstore.snapshot.CatalogSnapshots;
+import com.bookstore.online_bookstore.view.RenderedPageCache;
+
+/**
+ * AdminController
+ * Operational JSON endpoints. Not authenticated: keep
+ * bookstore.admin.enabled off wherever /admin is reachable by the public.
+ */
+@RestController
+@RequestMapping("/admin")
+@ConditionalOnProperty(name = "bookstore.admin.enabled", havingValue = "true")
+public class AdminController {
+
+    private final DatabaseManager db;
+
+    public AdminController(DatabaseManager db) {
+        this.db = db;
+    }
+
+    // Hottest statements first, then the recent slow ones with their plans
+    @GetMapping("/sql")
+    public Map<String, Object> sqlStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("slowQueryThresholdMs", db.getTracer().getSlowThresholdMillis());
+        stats.put("statements", db.getTracer().getStatementStats());
+        stats.put("slowQueries", db.getTracer().getSlowQueries());
+        stats.put("pool", db.getPoolStats());
+        stats.put("bulkhead", db.getBulkheadStats());
+        stats.put("statementCache", db.getStatementCacheStats());
+        return stats;
+    }
+
+    // How many threads are using the database and how many queue for it
+    @GetMapping("/db/bulkhead")
+    public ResponseEntity<DatabaseBulkhead.Stats> bulkheadStats() {
+        DatabaseBulkhead.Stats stats = db.getBulkheadStats();
+        return stats != null ? ResponseEntity.ok(stats) : ResponseEntity.notFound().build();
+    }
+
+    // Rendered-page cache: hit ratio, size in bytes, catalog invalidations
+    @GetMapping("/cache/pages")
+    public RenderedPageCache.Stats pageCacheStats() {
+        return RenderedPageCache.getInstance().getStats();
+    }
+
+    @GetMapping("/covers")
+    public CoverPipeline.Stats coverStats() {
+        return CoverPipeline.getInstance().getStats();
+    }
+
+    // Mapped catalog snapshot: version, verification, reads it served
+    @GetMapping("/snapshot")
+    public CatalogSnapshots.Stats snapshotStats() {
+        return CatalogSnapshots.getInstance().getStats();
+    }
+
+    // In-memory catalog: rows, estimated heap, distinct values per column
+    @GetMapping("/catalog/store")
+    public CatalogStores.Stats catalogStoreStats() {
+        return CatalogStores.getInstance().getStats();
+    }
+
+    @PostMapping("/sql/reset")
+    public ResponseEntity<Void> resetSqlStats() {
+        db.getTracer().reset();
+        return ResponseEntity.noContent().build();
+    }
+}
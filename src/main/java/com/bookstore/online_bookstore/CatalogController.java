@@ -0,0 +1,393 @@
+package com.bookstore.online_bookstore;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.bookstore.online_bookstore.catalog.CatalogStore;
+import com.bookstore.online_bookstore.catalog.CatalogStores;
+import com.bookstore.online_bookstore.catalog.Facet;
+import com.bookstore.online_bookstore.covers.CoverStore;
+import com.bookstore.online_bookstore.model.Book;
+import com.bookstore.online_bookstore.model.BookExport;
+import com.bookstore.online_bookstore.model.BookPage;
+import com.bookstore.online_bookstore.model.BookSearch;
+import com.bookstore.online_bookstore.model.BookSort;
+import com.bookstore.online_bookstore.model.CatalogVersion;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * CatalogController
+ * Read-only JSON catalog API. Every response carries the catalog
+ * version as its ETag and the time of the last catalog write as
+ * Last-Modified, so a client or CDN revalidating an unchanged catalog
+ * gets 304 Not Modified without any query being run.
+ *
+ * /api/books/browse filters and counts facets from the in-memory
+ * CatalogStore, without SQL.
+ *
+ * /api/books/export streams the whole catalog (JSON Lines or CSV,
+ * optionally gzipped) for partner feeds; see BookExport for how it
+ * keeps memory flat.
+ */
+@RestController
+@RequestMapping("/api/books")
+public class CatalogController {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int DEFAULT_FACET_LIMIT = 20;
+    public static final int MAX_FACET_LIMIT = 1000;
+
+    public record BookJson(
+            String isbn,
+            String title,
+            String author,
+            String publisher,
+            int publicationYear,
+            String language,
+            int pageCount,
+            String type,
+            String genre,
+            String status,
+            boolean promo,
+            double price,
+            int stock,
+            String description,
+            String coverImageUrl,
+            String thumbnailUrl
+    ) {
+        // Listings link the stored thumbnail, not the full-size original
+        public static BookJson of(Book book) {
+            String thumbnailUrl = book.getCoverImageUrl() != null && CoverStore.isValidIsbn(book.getIsbn())
+                    ? "/covers/" + book.getIsbn() + "/thumbnail" : null;
+            return new BookJson(book.getIsbn(), book.getTitle(), book.getAuthor(), book.getPublisher(),
+                    book.getPublicationYear(), book.getLanguage(), book.getPageCount(), book.getType(),
+                    book.getGenre(), book.getStatus(), book.isPromo(), book.getPrice(), book.getStock(),
+                    book.getDescription(), book.getCoverImageUrl(), thumbnailUrl);
+        }
+    }
+
+    public record PageJson(List<BookJson> books, String nextCursor) {}
+
+    public record BrowseJson(int total, int offset, List<BookJson> books,
+            Map<String, List<CatalogStore.FacetCount>> facets) {}
+
+    public enum ExportFormat {
+        JSONL("application/x-ndjson", "jsonl"),
+        CSV("text/csv;charset=UTF-8", "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        ExportFormat(String mediaType, String extension) {
+            this.mediaType = MediaType.parseMediaType(mediaType);
+            this.extension = extension;
+        }
+    }
+
+    // Column order of CSV exports, matching the BookJson fields
+    static final List<String> CSV_COLUMNS = List.of("isbn", "title", "author", "publisher", "publicationYear",
+            "language", "pageCount", "type", "genre", "status", "promo", "price", "stock", "description",
+            "coverImageUrl", "thumbnailUrl");
+
+    private final Book books = new Book(null, null, null, null, null, 0, null, 0, null, null);
+    private final BookSearch search = new BookSearch();
+    private final BookExport export = new BookExport();
+    private final CatalogVersion catalogVersion;
+    private final CacheControl cacheControl;
+    private final JsonMapper json;
+
+    public CatalogController(@Value("${bookstore.api.catalog.max-age:0s}") Duration maxAge, JsonMapper json) {
+        this.catalogVersion = CatalogVersion.getInstance();
+        this.json = json;
+        this.cacheControl = CacheControl.maxAge(maxAge.toSeconds(), TimeUnit.SECONDS)
+                .cachePublic()
+                .mustRevalidate();
+    }
+
+    // ============================================================
+    // ENDPOINTS
+    // ============================================================
+    @GetMapping
+    public ResponseEntity<PageJson> list(
+            @RequestParam(defaultValue = "ISBN") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+            WebRequest request) {
+        BookSort order = parse(BookSort.class, sort);
+        checkRange("size", size, MAX_PAGE_SIZE);
+
+        return conditional(request, () -> {
+            BookPage page = books.listBooks(order, cursor, size);
+            return new PageJson(toJson(page.books()), page.nextCursor());
+        });
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<BookJson>> search(
+            @RequestParam("q") String text,
+            @RequestParam(required = false) List<String> fields,
+            @RequestParam(defaultValue = "" + BookSearch.DEFAULT_LIMIT) int limit,
+            WebRequest request) {
+        Set<BookSearch.Field> searched = EnumSet.noneOf(BookSearch.Field.class);
+        if (fields == null || fields.isEmpty()) {
+            searched.addAll(EnumSet.allOf(BookSearch.Field.class));
+        } else {
+            for (String field : fields) {
+                searched.add(parse(BookSearch.Field.class, field));
+            }
+        }
+        checkRange("limit", limit, BookSearch.MAX_LIMIT);
+
+        return conditional(request, () -> toJson(search.searchBooks(text, searched, limit)));
+    }
+
+    @GetMapping("/{isbn}")
+    public ResponseEntity<BookJson> get(@PathVariable String isbn, WebRequest request) {
+        return conditional(request, () -> {
+            Book book = books.getBookByIsbn(isbn);
+            return book != null ? BookJson.of(book) : null;
+        });
+    }
+
+    /**
+     * Faceted browse: repeat a parameter to match any of its values
+     * (genre=Fantasy&genre=Poetry); different facets must all match.
+     * Answered from the CatalogStore's bitmaps; 503 while it is loading.
+     */
+    @GetMapping("/browse")
+    public ResponseEntity<BrowseJson> browse(
+            @RequestParam(required = false) Set<String> genre,
+            @RequestParam(required = false) Set<String> language,
+            @RequestParam(required = false) Set<String> type,
+            @RequestParam(required = false) Set<String> author,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(defaultValue = "" + DEFAULT_FACET_LIMIT) int facetLimit,
+            WebRequest request) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset must not be negative");
+        }
+        checkRange("size", size, MAX_PAGE_SIZE);
+        checkRange("facetLimit", facetLimit, MAX_FACET_LIMIT);
+
+        Map<Facet, Set<String>> filters = new EnumMap<>(Facet.class);
+        filters.put(Facet.GENRE, genre != null ? genre : Set.of());
+        filters.put(Facet.LANGUAGE, language != null ? language : Set.of());
+        filters.put(Facet.TYPE, type != null ? type : Set.of());
+        filters.put(Facet.AUTHOR, author != null ? author : Set.of());
+
+        CatalogStore store = CatalogStores.getInstance().current();
+        if (store == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .build();
+        }
+
+        return conditional(request, () -> {
+            CatalogStore.Browse browse = store.browse(filters, offset, size, facetLimit);
+            Map<String, List<CatalogStore.FacetCount>> facets = new LinkedHashMap<>();
+            browse.facets().forEach((facet, counts) -> facets.put(facet.param(), counts));
+            return new BrowseJson(browse.total(), offset, toJson(browse.books()), facets);
+        });
+    }
+
+    /**
+     * Every book matching the filters, written while it is read: one
+     * page of rows in memory at a time, whatever the catalog size.
+     * Gzipped when the client accepts it.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "jsonl") String format,
+            @RequestParam(required = false) Set<String> genre,
+            @RequestParam(required = false) String updatedSince,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ExportFormat exportFormat = parse(ExportFormat.class, format);
+        BookExport.Filter filter = new BookExport.Filter(genre, parseInstant("updatedSince", updatedSince));
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        String filename = "catalog-" + LocalDate.now(ZoneOffset.UTC) + "." + exportFormat.extension;
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(exportFormat.mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .cacheControl(CacheControl.noStore());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        return response.body(out -> writeExport(out, exportFormat, filter, gzip));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+
+    // ============================================================
+    // CONDITIONAL RESPONSES
+    // ============================================================
+    /**
+     * 304 when the client already has the current catalog version;
+     * otherwise the body (404 if it is null), stamped with the version
+     * read before it was loaded, so a write in between can only make
+     * the ETag too old.
+     */
+    private <T> ResponseEntity<T> conditional(WebRequest request, Supplier<T> body) {
+        CatalogVersion.Stamp stamp = catalogVersion.current();
+        if (request.checkNotModified(stamp.etag(), stamp.lastModified().toEpochMilli())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        }
+        T value = body.get();
+        if (value == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok().cacheControl(cacheControl).body(value);
+    }
+
+    // ============================================================
+    // EXPORT
+    // ============================================================
+    private void writeExport(OutputStream out, ExportFormat format, BookExport.Filter filter, boolean gzip)
+            throws IOException {
+        // finish(), not close(): the container owns the response stream
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, 64 * 1024) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(
+                compressed != null ? compressed : out, StandardCharsets.UTF_8), 64 * 1024);
+
+        if (format == ExportFormat.CSV) {
+            writer.write(String.join(",", CSV_COLUMNS));
+            writer.write("\r\n");
+        }
+        // An IllegalStateException from a page that failed to load propagates
+        // on purpose: the container then closes the connection without ending
+        // the body, so the client sees a broken transfer rather than a short file
+        try {
+            export.forEach(filter, BookExport.DEFAULT_PAGE_SIZE, book -> {
+                try {
+                    BookJson row = BookJson.of(book);
+                    if (format == ExportFormat.CSV) {
+                        writeCsvRow(writer, row);
+                    } else {
+                        writer.write(json.writeValueAsString(row));
+                        writer.write('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause(); // usually the client going away mid-download
+        }
+
+        writer.flush();
+        if (compressed != null) compressed.finish();
+    }
+
+    private static void writeCsvRow(Writer writer, BookJson row) throws IOException {
+        Object[] values = { row.isbn(), row.title(), row.author(), row.publisher(), row.publicationYear(),
+                row.language(), row.pageCount(), row.type(), row.genre(), row.status(), row.promo(),
+                row.price(), row.stock(), row.description(), row.coverImageUrl(), row.thumbnailUrl() };
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) writer.write(',');
+            if (values[i] != null) writer.write(csvField(values[i].toString()));
+        }
+        writer.write("\r\n");
+    }
+
+    // RFC 4180: quote fields containing separators, quotes or line breaks
+    static String csvField(String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return quote ? "\"" + value.replace("\"", "\"\"") + "\"" : value;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    // An ISO instant (2024-05-01T00:00:00Z) or a date, taken as midnight UTC
+    private static Instant parseInstant(String name, String value) {
+        if (value == null || value.isBlank()) return null;
+        try {
+            return value.contains("T")
+                    ? Instant.parse(value.trim())
+                    : LocalDate.parse(value.trim()).atStartOfDay(ZoneOffset.UTC).toInstant();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " must be an ISO date or instant: " + value);
+        }
+    }
+
+    private static List<BookJson> toJson(List<Book> books) {
+        List<BookJson> json = new ArrayList<>(books.size());
+        for (Book book : books) {
+            json.add(BookJson.of(book));
+        }
+        return json;
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String name) {
+        try {
+            return Enum.valueOf(type, name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown " + type.getSimpleName() + ": " + name);
+        }
+    }
+
+    private static void checkRange(String name, int value, int max) {
+        if (value < 1 || value > max) {
+            throw new IllegalArgumentException(name + " must be between 1 and " + max);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.bookstore.online_bookstore.catalog;
+
+import com.bookstore.online_bookstore.model.Book;
+
+/**
+ * BookView
+ * Flyweight over one row of a CatalogStore, with the same getters as
+ * Book. Nothing is copied until a getter is called, and CatalogStore's
+ * iteration moves a single view from row to row instead of creating a
+ * Book per row. Only valid inside the callback it was passed to; call
+ * toBook() to keep a row.
+ */
+public final class BookView {
+
+    private final CatalogStore store;
+    private int row;
+
+    BookView(CatalogStore store) {
+        this.store = store;
+    }
+
+    BookView moveTo(int row) {
+        this.row = row;
+        return this;
+    }
+
+    public int row() {
+        return row;
+    }
+
+    public String getIsbn() {
+        return store.isbn.get(row);
+    }
+
+    public String getCoverImageUrl() {
+        return store.coverImageUrl.get(row);
+    }
+
+    public String getTitle() {
+        return store.title.get(row);
+    }
+
+    public String getAuthor() {
+        return store.author.get(row);
+    }
+
+    public String getPublisher() {
+        return store.publisher.get(row);
+    }
+
+    public int getPublicationYear() {
+        return store.publicationYear[row];
+    }
+
+    public String getLanguage() {
+        return store.language.get(row);
+    }
+
+    public int getPageCount() {
+        return store.pageCount[row];
+    }
+
+    public String getType() {
+        return store.type.get(row);
+    }
+
+    public String getGenre() {
+        return store.genre.get(row);
+    }
+
+    public String getStatus() {
+        return store.status.get(row);
+    }
+
+    public boolean isPromo() {
+        return store.promo.get(row);
+    }
+
+    public double getPrice() {
+        return store.price[row];
+    }
+
+    public int getStock() {
+        return store.stock[row];
+    }
+
+    public String getDescription() {
+        return store.description.get(row);
+    }
+
+    /**
+     * Detached copy of the row, safe to keep and change.
+     */
+    public Book toBook() {
+        Book book = new Book(getIsbn(), getCoverImageUrl(), getTitle(), getAuthor(), getPublisher(),
+                getPublicationYear(), getLanguage(), getPageCount(), getType(), getGenre());
+        book.setStatus(getStatus());
+        book.setPromo(isPromo());
+        book.setPrice(getPrice());
+        book.setStock(getStock());
+        book.setDescription(getDescription());
+        return book;
+    }
+}
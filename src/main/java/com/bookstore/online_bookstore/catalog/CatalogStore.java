@@ -0,0 +1,449 @@
+package com.bookstore.online_bookstore.catalog;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import com.bookstore.online_bookstore.model.Book;
+
+/**
+ * CatalogStore
+ * The whole catalog in memory, column by column, for a fraction of the
+ * heap a List<Book> needs:
+ *
+ *   - author, publisher, language, type, genre and status are
+ *     dictionary-encoded: one 1-4 byte code per row (DictionaryColumn)
+ *   - isbn, title, description and coverImageUrl share packed UTF-8
+ *     byte arrays instead of a String object each (PackedStrings)
+ *   - numbers live in primitive arrays, the promo flag in a BitSet
+ *
+ * The store is a few dozen objects whatever its size, so keeping it
+ * around costs the collector next to nothing. Rows are read through
+ * BookView or copied out as Books; put() adds or overwrites by ISBN.
+ *
+ * Each Facet also has a RowBitmap per value, kept in step by put(), so
+ * browse() answers any mix of facet filters, and the counts for every
+ * facet, with bitmap ANDs instead of a query per combination.
+ */
+public class CatalogStore {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final Facet[] FACETS = Facet.values();
+    // Below this many matching rows per facet value, counting by row beats intersecting bitmaps
+    private static final int TALLY_ROWS_PER_VALUE = 64;
+
+    final PackedStrings isbn;
+    final PackedStrings coverImageUrl;
+    final PackedStrings title;
+    final PackedStrings description;
+    final DictionaryColumn author;
+    final DictionaryColumn publisher;
+    final DictionaryColumn language;
+    final DictionaryColumn type;
+    final DictionaryColumn genre;
+    final DictionaryColumn status;
+    int[] publicationYear;
+    int[] pageCount;
+    int[] stock;
+    double[] price;
+    final BitSet promo = new BitSet();
+
+    private int size;
+    private int capacity;
+
+    // Open-addressing ISBN index: row + 1 per slot, 0 for empty
+    private int[] slots = new int[2 * INITIAL_CAPACITY];
+
+    // Per facet, the rows holding each value, indexed by dictionary code (0, null, is not indexed)
+    private final Map<Facet, List<RowBitmap>> facets = new EnumMap<>(Facet.class);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public CatalogStore() {
+        capacity = INITIAL_CAPACITY;
+        isbn = new PackedStrings(capacity);
+        coverImageUrl = new PackedStrings(capacity);
+        title = new PackedStrings(capacity);
+        description = new PackedStrings(capacity);
+        author = new DictionaryColumn(capacity);
+        publisher = new DictionaryColumn(capacity);
+        language = new DictionaryColumn(capacity);
+        type = new DictionaryColumn(capacity);
+        genre = new DictionaryColumn(capacity);
+        status = new DictionaryColumn(capacity);
+        publicationYear = new int[capacity];
+        pageCount = new int[capacity];
+        stock = new int[capacity];
+        price = new double[capacity];
+        for (Facet facet : FACETS) {
+            facets.put(facet, new ArrayList<>());
+        }
+    }
+
+    // ============================================================
+    // WRITE
+    // ============================================================
+    /**
+     * Adds book, or overwrites the row with its ISBN. Returns the row.
+     */
+    public int put(Book book) {
+        if (book.getIsbn() == null) {
+            throw new IllegalArgumentException("Book without ISBN");
+        }
+        lock.writeLock().lock();
+        try {
+            byte[] key = book.getIsbn().getBytes(StandardCharsets.UTF_8);
+            int row = find(key);
+            boolean added = row < 0;
+            if (added) {
+                row = append(book.getIsbn());
+            }
+            int[] before = new int[FACETS.length];
+            for (Facet facet : FACETS) {
+                before[facet.ordinal()] = added ? 0 : facet.column(this).code(row);
+            }
+
+            coverImageUrl.set(row, book.getCoverImageUrl());
+            title.set(row, book.getTitle());
+            description.set(row, book.getDescription());
+            author.set(row, book.getAuthor());
+            publisher.set(row, book.getPublisher());
+            language.set(row, book.getLanguage());
+            type.set(row, book.getType());
+            genre.set(row, book.getGenre());
+            status.set(row, book.getStatus());
+            publicationYear[row] = book.getPublicationYear();
+            pageCount[row] = book.getPageCount();
+            stock[row] = book.getStock();
+            price[row] = book.getPrice();
+            promo.set(row, book.isPromo());
+
+            for (Facet facet : FACETS) {
+                int old = before[facet.ordinal()];
+                int code = facet.column(this).code(row);
+                if (old != code) {
+                    if (old != 0) facets.get(facet).get(old).remove(row);
+                    if (code != 0) bitmap(facet, code).add(row);
+                }
+            }
+            return row;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putAll(Collection<Book> books) {
+        for (Book book : books) {
+            put(book);
+        }
+    }
+
+    private int append(String value) {
+        if (size == capacity) {
+            resize(Math.max(capacity + (capacity >> 1), INITIAL_CAPACITY));
+        }
+        int row = size++;
+        isbn.set(row, value);
+        if (2 * size > slots.length) {
+            rehash(2 * slots.length);
+        } else {
+            insert(row);
+        }
+        return row;
+    }
+
+    /**
+     * Drops the spare room left by growing, e.g. once a full load is done.
+     * The next put grows the arrays again.
+     */
+    public void trimToSize() {
+        lock.writeLock().lock();
+        try {
+            resize(Math.max(size, 1));
+            isbn.trimData();
+            coverImageUrl.trimData();
+            title.trimData();
+            description.trimData();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void resize(int newCapacity) {
+        isbn.resize(newCapacity);
+        coverImageUrl.resize(newCapacity);
+        title.resize(newCapacity);
+        description.resize(newCapacity);
+        author.resize(newCapacity);
+        publisher.resize(newCapacity);
+        language.resize(newCapacity);
+        type.resize(newCapacity);
+        genre.resize(newCapacity);
+        status.resize(newCapacity);
+        publicationYear = Arrays.copyOf(publicationYear, newCapacity);
+        pageCount = Arrays.copyOf(pageCount, newCapacity);
+        stock = Arrays.copyOf(stock, newCapacity);
+        price = Arrays.copyOf(price, newCapacity);
+        capacity = newCapacity;
+    }
+
+    // ============================================================
+    // READ
+    // ============================================================
+    /**
+     * Copy of the book with this ISBN, or null if there is none.
+     */
+    public Book get(String isbnValue) {
+        if (isbnValue == null) return null;
+        lock.readLock().lock();
+        try {
+            int row = find(isbnValue.getBytes(StandardCharsets.UTF_8));
+            return row >= 0 ? new BookView(this).moveTo(row).toBook() : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Row holding isbnValue, or -1.
+     */
+    public int rowOf(String isbnValue) {
+        if (isbnValue == null) return -1;
+        lock.readLock().lock();
+        try {
+            return find(isbnValue.getBytes(StandardCharsets.UTF_8));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Passes one BookView, moved from row to row, to action. Writers
+     * wait until the iteration is over.
+     */
+    public void forEach(Consumer<BookView> action) {
+        lock.readLock().lock();
+        try {
+            BookView view = new BookView(this);
+            for (int row = 0; row < size; row++) {
+                action.accept(view.moveTo(row));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Book> toBooks() {
+        List<Book> books = new ArrayList<>(size());
+        forEach(view -> books.add(view.toBook()));
+        return books;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ============================================================
+    // FACETS
+    // ============================================================
+    public record FacetCount(String value, int count) {}
+
+    /**
+     * total: rows matching every filter; books: up to limit of them
+     * after skipping offset, in row order (ISBN order as loaded, books
+     * added since at the end); facets: per facet, its most frequent
+     * values (at most facetLimit) among the matching rows.
+     */
+    public record Browse(int total, List<Book> books, Map<Facet, List<FacetCount>> facets) {}
+
+    /**
+     * Books matching filters: within a facet any of its values, across
+     * facets all of them. Counts for a facet ignore that facet's own
+     * filter, so picking "Fantasy" still shows how many books the other
+     * genres would add.
+     */
+    public Browse browse(Map<Facet, Set<String>> filters, int offset, int limit, int facetLimit) {
+        lock.readLock().lock();
+        try {
+            Map<Facet, RowBitmap> selected = new EnumMap<>(Facet.class);
+            for (Map.Entry<Facet, Set<String>> filter : filters.entrySet()) {
+                if (filter.getValue().isEmpty()) continue;
+                RowBitmap union = new RowBitmap();
+                for (String value : filter.getValue()) {
+                    int code = filter.getKey().column(this).codeOf(value);
+                    if (code > 0 && code < facets.get(filter.getKey()).size()) {
+                        union = union.or(facets.get(filter.getKey()).get(code));
+                    }
+                }
+                selected.put(filter.getKey(), union);
+            }
+
+            RowBitmap matches = intersect(selected, null);
+            int total = matches != null ? matches.cardinality() : size;
+
+            List<Book> books = new ArrayList<>(Math.min(limit, Math.max(0, total - offset)));
+            BookView view = new BookView(this);
+            int[] skip = { offset };
+            if (matches != null) {
+                matches.forEach(row -> {
+                    if (skip[0] > 0) {
+                        skip[0]--;
+                        return true;
+                    }
+                    books.add(view.moveTo(row).toBook());
+                    return books.size() < limit;
+                });
+            } else {
+                for (int row = offset; row < size && books.size() < limit; row++) {
+                    books.add(view.moveTo(row).toBook());
+                }
+            }
+
+            Map<Facet, List<FacetCount>> counts = new EnumMap<>(Facet.class);
+            for (Facet facet : FACETS) {
+                counts.put(facet, count(facet, intersect(selected, facet), facetLimit));
+            }
+            return new Browse(total, books, counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // AND of the selected facets except one; null means no filter (every row)
+    private static RowBitmap intersect(Map<Facet, RowBitmap> selected, Facet except) {
+        RowBitmap result = null;
+        for (Map.Entry<Facet, RowBitmap> entry : selected.entrySet()) {
+            if (entry.getKey() == except) continue;
+            result = result == null ? entry.getValue() : result.and(entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Top facetLimit values of facet among rows within. A few matching
+     * rows are tallied by code directly; otherwise each value's bitmap is
+     * intersected, which stays cheap while the dictionary is small.
+     */
+    private List<FacetCount> count(Facet facet, RowBitmap within, int facetLimit) {
+        DictionaryColumn column = facet.column(this);
+        List<RowBitmap> bitmaps = facets.get(facet);
+        int[] counts = new int[bitmaps.size()];
+        if (within != null && within.cardinality() < TALLY_ROWS_PER_VALUE * (long) bitmaps.size()) {
+            within.forEach(row -> {
+                int code = column.code(row);
+                if (code < counts.length) counts[code]++;
+                return true;
+            });
+        } else {
+            for (int code = 1; code < bitmaps.size(); code++) {
+                RowBitmap bitmap = bitmaps.get(code);
+                counts[code] = within == null ? bitmap.cardinality() : bitmap.andCardinality(within);
+            }
+        }
+
+        // Keep the best facetLimit codes in a min-heap instead of sorting every value
+        Comparator<Integer> order = Comparator.<Integer>comparingInt(code -> counts[code]).reversed()
+                .thenComparing(column::value);
+        PriorityQueue<Integer> top = new PriorityQueue<>(order.reversed());
+        for (int code = 1; code < counts.length && facetLimit > 0; code++) {
+            if (counts[code] == 0) continue;
+            if (top.size() < facetLimit) {
+                top.add(code);
+            } else if (order.compare(code, top.peek()) < 0) {
+                top.poll();
+                top.add(code);
+            }
+        }
+        List<Integer> codes = new ArrayList<>(top);
+        codes.sort(order);
+        List<FacetCount> result = new ArrayList<>(codes.size());
+        for (int code : codes) {
+            result.add(new FacetCount(column.value(code), counts[code]));
+        }
+        return result;
+    }
+
+    private RowBitmap bitmap(Facet facet, int code) {
+        List<RowBitmap> bitmaps = facets.get(facet);
+        while (bitmaps.size() <= code) {
+            bitmaps.add(new RowBitmap());
+        }
+        return bitmaps.get(code);
+    }
+
+    // ============================================================
+    // ISBN INDEX
+    // ============================================================
+    private int find(byte[] key) {
+        int mask = slots.length - 1;
+        for (int slot = PackedStrings.hash(key, 0, key.length) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int row = slots[slot] - 1;
+            if (isbn.equals(row, key)) return row;
+        }
+        return -1;
+    }
+
+    private void insert(int row) {
+        int mask = slots.length - 1;
+        int slot = isbn.hash(row) & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = row + 1;
+    }
+
+    private void rehash(int newLength) {
+        slots = new int[newLength];
+        for (int row = 0; row < size; row++) {
+            insert(row);
+        }
+    }
+
+    // ============================================================
+    // METRICS
+    // ============================================================
+    public Stats getStats() {
+        lock.readLock().lock();
+        try {
+            long bytes = isbn.estimatedBytes() + coverImageUrl.estimatedBytes() + title.estimatedBytes()
+                    + description.estimatedBytes() + author.estimatedBytes() + publisher.estimatedBytes()
+                    + language.estimatedBytes() + type.estimatedBytes() + genre.estimatedBytes()
+                    + status.estimatedBytes() + 4L * slots.length
+                    + (4L + 4 + 4 + 8) * capacity + promo.size() / 8;
+            for (List<RowBitmap> bitmaps : facets.values()) {
+                for (RowBitmap bitmap : bitmaps) bytes += bitmap.estimatedBytes();
+            }
+            long garbage = (long) isbn.garbageBytes() + coverImageUrl.garbageBytes()
+                    + title.garbageBytes() + description.garbageBytes();
+            return new Stats(size, bytes, size > 0 ? bytes / size : 0, garbage,
+                    author.cardinality() - 1, publisher.cardinality() - 1, language.cardinality() - 1,
+                    type.cardinality() - 1, genre.cardinality() - 1, status.cardinality() - 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * estimatedBytes counts the arrays and dictionaries the store holds;
+     * garbageBytes is string data left behind by overwritten rows. The
+     * remaining fields are the number of distinct values per column.
+     */
+    public record Stats(int books, long estimatedBytes, long bytesPerBook, long garbageBytes,
+            int authors, int publishers, int languages, int types, int genres, int statuses) {}
+}
@@ -0,0 +1,27 @@
+package com.bookstore.online_bookstore.catalog;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.bookstore.online_bookstore.db.DatabaseManager;
+import com.bookstore.online_bookstore.snapshot.CatalogSnapshots;
+
+/**
+ * CatalogStoreConfig
+ * Starts loading the in-memory catalog store once the database (and the
+ * catalog snapshot, when enabled, which makes the load SQL-free) is ready
+ */
+@Configuration
+@ConditionalOnProperty(name = "bookstore.catalog.store.enabled", havingValue = "true", matchIfMissing = true)
+public class CatalogStoreConfig {
+
+    @Bean(destroyMethod = "stop")
+    public CatalogStores catalogStores(DatabaseManager db, ObjectProvider<CatalogSnapshots> snapshots) {
+        snapshots.getIfAvailable();
+        CatalogStores stores = CatalogStores.getInstance();
+        stores.start();
+        return stores;
+    }
+}
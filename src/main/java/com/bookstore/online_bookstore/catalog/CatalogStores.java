@@ -0,0 +1,214 @@
+package com.bookstore.online_bookstore.catalog;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.bookstore.online_bookstore.model.Book;
+import com.bookstore.online_bookstore.model.BookExport;
+import com.bookstore.online_bookstore.model.CatalogVersion;
+import com.bookstore.online_bookstore.snapshot.CatalogSnapshot;
+import com.bookstore.online_bookstore.snapshot.CatalogSnapshots;
+
+/**
+ * CatalogStores
+ * Keeps the shared CatalogStore in step with the database. It is loaded
+ * in the background at startup (from the catalog snapshot when that is
+ * current, which needs no SQL), then patched row by row as Book writes
+ * go through. Like the snapshot, it is only handed out while it matches
+ * the catalog version; a change made behind Book's back triggers a
+ * full reload instead. A load that fails (a database error, or a write
+ * landing mid-scan) is retried with exponential backoff.
+ */
+public class CatalogStores {
+
+    static final long DEFAULT_RETRY_MILLIS = 1_000;
+    static final long MAX_RETRY_MILLIS = 60_000;
+
+    private static final CatalogStores instance = new CatalogStores(DEFAULT_RETRY_MILLIS);
+
+    private final long retryMillis;
+    private volatile CatalogStore store;
+    private volatile long catalogVersion = -1;
+    private final AtomicBoolean loading = new AtomicBoolean();
+    private final AtomicInteger failedInARow = new AtomicInteger();
+    private volatile ScheduledExecutorService loader;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong stale = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong updates = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    // First retry after retryMillis, doubling up to MAX_RETRY_MILLIS
+    CatalogStores(long retryMillis) {
+        this.retryMillis = retryMillis;
+    }
+
+    public static CatalogStores getInstance() {
+        return instance;
+    }
+
+    // ============================================================
+    // READ
+    // ============================================================
+    /**
+     * The store, if it is loaded and holds the current catalog version;
+     * otherwise null (the caller reads elsewhere) and a reload starts.
+     */
+    public CatalogStore current() {
+        CatalogStore current = store;
+        if (current == null) return null;
+        if (catalogVersion != CatalogVersion.getInstance().current().version()) {
+            stale.incrementAndGet();
+            reloadAsync();
+            return null;
+        }
+        hits.incrementAndGet();
+        return current;
+    }
+
+    // ============================================================
+    // LIFECYCLE
+    // ============================================================
+    /**
+     * Loads the store in the background; until then current() is null.
+     */
+    public synchronized void start() {
+        if (loader != null) return;
+        loader = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "catalog-store");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reloadAsync();
+    }
+
+    public synchronized void stop() {
+        store = null;
+        if (loader != null) {
+            loader.shutdownNow();
+            loader = null;
+        }
+    }
+
+    private void reloadAsync() {
+        loadAfter(0);
+    }
+
+    private void loadAfter(long delayMillis) {
+        ScheduledExecutorService executor = loader;
+        if (executor == null || !loading.compareAndSet(false, true)) return;
+        try {
+            executor.schedule(this::load, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            loading.set(false); // stopped in the meantime
+        }
+    }
+
+    private void load() {
+        long retryDelay = -1;
+        try {
+            reload();
+            failedInARow.set(0);
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            int failed = failedInARow.incrementAndGet();
+            retryDelay = Math.min(MAX_RETRY_MILLIS, retryMillis << Math.min(failed - 1, 16));
+            System.err.println("❌ Catalog store load failed, retrying in " + retryDelay + " ms: " + e.getMessage());
+        } finally {
+            loading.set(false);
+        }
+        // Otherwise nothing would load it again while it is still null
+        if (retryDelay >= 0) {
+            loadAfter(retryDelay);
+        }
+    }
+
+    /**
+     * Builds a new store from scratch and swaps it in. Writes may carry
+     * on meanwhile: if one lands during the build, the new store comes
+     * out stale and the next read starts another reload.
+     */
+    public void reload() {
+        long begin = System.currentTimeMillis();
+        Loaded loaded = build();
+        CatalogStore fresh = loaded.store();
+        fresh.trimToSize();
+
+        synchronized (this) {
+            store = fresh;
+            catalogVersion = loaded.catalogVersion();
+        }
+        loads.incrementAndGet();
+        CatalogStore.Stats stats = fresh.getStats();
+        System.out.println("🗂️ Catalog store loaded from " + loaded.source() + ": " + stats.books() + " books, "
+                + stats.estimatedBytes() / 1024 + " KB in " + (System.currentTimeMillis() - begin) + " ms");
+    }
+
+    // A freshly built store and the catalog version it holds
+    record Loaded(CatalogStore store, long catalogVersion, String source) {}
+
+    Loaded build() {
+        CatalogStore fresh = new CatalogStore();
+
+        CatalogSnapshot snapshot = CatalogSnapshots.getInstance().current();
+        if (snapshot != null) {
+            snapshot.forEach(fresh::put);
+            return new Loaded(fresh, snapshot.catalogVersion(), "snapshot");
+        }
+
+        // Read before the scan, so a write during it makes the store look stale
+        CatalogVersion.getInstance().refresh();
+        long version = CatalogVersion.getInstance().current().version();
+        new BookExport().forEachComplete(BookExport.DEFAULT_PAGE_SIZE, fresh::put);
+        return new Loaded(fresh, version, "database");
+    }
+
+    /**
+     * Re-reads isbns after Book wrote them. Must run before BookCache is
+     * invalidated, so a reader missing the cache finds the new rows here.
+     * If the store was already behind the catalog, or the rows cannot be
+     * read back, it is left behind and reloaded instead.
+     */
+    public synchronized void refresh(Collection<String> isbns) {
+        CatalogStore current = store;
+        if (current == null || isbns.isEmpty()) return;
+
+        CatalogVersion version = CatalogVersion.getInstance();
+        boolean wasCurrent = catalogVersion == version.current().version();
+        version.refresh();
+        if (!wasCurrent) {
+            reloadAsync();
+            return;
+        }
+        long next = version.current().version();
+        try {
+            current.putAll(Book.getBooksByIsbn(isbns));
+        } catch (SQLException e) {
+            System.err.println("❌ Catalog store refresh failed, reloading: " + e.getMessage());
+            reloadAsync();
+            return;
+        }
+        catalogVersion = next;
+        updates.incrementAndGet();
+    }
+
+    // ============================================================
+    // METRICS
+    // ============================================================
+    public Stats getStats() {
+        CatalogStore current = store;
+        return new Stats(catalogVersion, current != null ? current.getStats() : null,
+                hits.get(), stale.get(), loads.get(), updates.get(), failures.get());
+    }
+
+    public record Stats(long catalogVersion, CatalogStore.Stats store, long hits, long stale, long loads,
+            long updates, long failedLoads) {}
+}
@@ -0,0 +1,124 @@
+package com.bookstore.online_bookstore.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DictionaryColumn
+ * A low-cardinality string column (genre, language, publisher...) kept
+ * as one small code per row plus a dictionary of the distinct values.
+ * Codes start as bytes and widen to shorts, then ints, only when the
+ * dictionary outgrows them. Code 0 always means null.
+ */
+final class DictionaryColumn {
+
+    private final List<String> values = new ArrayList<>();
+    private final Map<String, Integer> codes = new HashMap<>();
+
+    // Exactly one of these is in use, the narrowest that fits the dictionary
+    private byte[] bytes;
+    private short[] shorts;
+    private int[] ints;
+
+    DictionaryColumn(int capacity) {
+        values.add(null);
+        bytes = new byte[capacity];
+    }
+
+    void resize(int capacity) {
+        if (bytes != null) bytes = Arrays.copyOf(bytes, capacity);
+        else if (shorts != null) shorts = Arrays.copyOf(shorts, capacity);
+        else ints = Arrays.copyOf(ints, capacity);
+    }
+
+    private int capacity() {
+        return bytes != null ? bytes.length : shorts != null ? shorts.length : ints.length;
+    }
+
+    // ============================================================
+    // ROWS
+    // ============================================================
+    int code(int row) {
+        if (bytes != null) return bytes[row] & 0xFF;
+        if (shorts != null) return shorts[row] & 0xFFFF;
+        return ints[row];
+    }
+
+    String get(int row) {
+        return values.get(code(row));
+    }
+
+    void set(int row, String value) {
+        int code = encode(value);
+        if (bytes != null) bytes[row] = (byte) code;
+        else if (shorts != null) shorts[row] = (short) code;
+        else ints[row] = code;
+    }
+
+    // ============================================================
+    // DICTIONARY
+    // ============================================================
+    /**
+     * Code of value, or -1 if no row has ever held it.
+     */
+    int codeOf(String value) {
+        if (value == null) return 0;
+        Integer code = codes.get(value);
+        return code != null ? code : -1;
+    }
+
+    String value(int code) {
+        return values.get(code);
+    }
+
+    /**
+     * Number of codes in use, including 0 for null.
+     */
+    int cardinality() {
+        return values.size();
+    }
+
+    private int encode(String value) {
+        if (value == null) return 0;
+        Integer known = codes.get(value);
+        if (known != null) return known;
+
+        int code = values.size();
+        values.add(value);
+        codes.put(value, code);
+        widenFor(code);
+        return code;
+    }
+
+    private void widenFor(int code) {
+        if (bytes != null && code > 0xFF) {
+            shorts = new short[bytes.length];
+            for (int i = 0; i < bytes.length; i++) shorts[i] = (short) (bytes[i] & 0xFF);
+            bytes = null;
+        }
+        if (shorts != null && code > 0xFFFF) {
+            ints = new int[shorts.length];
+            for (int i = 0; i < shorts.length; i++) ints[i] = shorts[i] & 0xFFFF;
+            shorts = null;
+        }
+    }
+
+    // ============================================================
+    // METRICS
+    // ============================================================
+    int bytesPerRow() {
+        return bytes != null ? 1 : shorts != null ? 2 : 4;
+    }
+
+    long estimatedBytes() {
+        long dictionary = 0;
+        for (String value : values) {
+            // String header + array header + chars (Latin-1 compact strings), plus two map/list slots
+            if (value != null) dictionary += 24 + 16 + value.length() + 48;
+        }
+        return (long) bytesPerRow() * capacity() + dictionary;
+    }
+}
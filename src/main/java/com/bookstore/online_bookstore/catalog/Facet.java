@@ -0,0 +1,31 @@
+package com.bookstore.online_bookstore.catalog;
+
+import java.util.Locale;
+
+/**
+ * Facet
+ * Book columns the CatalogStore keeps a bitmap per value for, so any
+ * combination of them can be filtered and counted without a query
+ */
+public enum Facet {
+    GENRE,
+    LANGUAGE,
+    TYPE,
+    AUTHOR;
+
+    /**
+     * Name used in request parameters and JSON ("genre", "author"...).
+     */
+    public String param() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    DictionaryColumn column(CatalogStore store) {
+        return switch (this) {
+            case GENRE -> store.genre;
+            case LANGUAGE -> store.language;
+            case TYPE -> store.type;
+            case AUTHOR -> store.author;
+        };
+    }
+}
@@ -0,0 +1,124 @@
+package com.bookstore.online_bookstore.catalog;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * PackedStrings
+ * A column of mostly distinct strings (ISBNs, titles, descriptions)
+ * stored as UTF-8 in one shared byte array, addressed by row. Millions
+ * of rows cost three arrays instead of millions of String objects, so
+ * the collector has almost nothing to trace.
+ *
+ * Changing a row appends its new bytes; the old ones stay behind as
+ * garbage until the column is rebuilt.
+ */
+final class PackedStrings {
+
+    private static final int NULL = -1;
+
+    // Each value is a varint byte length followed by its UTF-8 bytes
+    private byte[] data = new byte[1024];
+    private int used;
+    private int garbage;
+    private int[] offsets;
+
+    PackedStrings(int capacity) {
+        offsets = new int[capacity];
+        Arrays.fill(offsets, NULL);
+    }
+
+    void resize(int capacity) {
+        int old = offsets.length;
+        offsets = Arrays.copyOf(offsets, capacity);
+        if (capacity > old) {
+            Arrays.fill(offsets, old, capacity, NULL);
+        }
+    }
+
+    // Drops the spare room at the end of the shared byte array
+    void trimData() {
+        data = Arrays.copyOf(data, used);
+    }
+
+    String get(int row) {
+        int offset = offsets[row];
+        if (offset == NULL) return null;
+        int length = readLength(offset);
+        return new String(data, offset + lengthBytes(length), length, StandardCharsets.UTF_8);
+    }
+
+    void set(int row, String value) {
+        int old = offsets[row];
+        if (old != NULL) {
+            int length = readLength(old);
+            garbage += lengthBytes(length) + length;
+        }
+        if (value == null) {
+            offsets[row] = NULL;
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        int needed = lengthBytes(utf8.length) + utf8.length;
+        if (used + needed > data.length) {
+            long grown = Math.max((long) used + needed, (long) data.length + (data.length >> 1));
+            if (grown > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("String column over 2 GB");
+            }
+            data = Arrays.copyOf(data, (int) grown);
+        }
+        offsets[row] = used;
+        for (int length = utf8.length; ; length >>>= 7) {
+            if (length < 0x80) {
+                data[used++] = (byte) length;
+                break;
+            }
+            data[used++] = (byte) (length & 0x7F | 0x80);
+        }
+        System.arraycopy(utf8, 0, data, used, utf8.length);
+        used += utf8.length;
+    }
+
+    boolean equals(int row, byte[] utf8) {
+        int offset = offsets[row];
+        if (offset == NULL) return false;
+        int length = readLength(offset);
+        int from = offset + lengthBytes(length);
+        return length == utf8.length && Arrays.equals(data, from, from + length, utf8, 0, length);
+    }
+
+    int hash(int row) {
+        int offset = offsets[row];
+        int length = readLength(offset);
+        return hash(data, offset + lengthBytes(length), length);
+    }
+
+    static int hash(byte[] bytes, int from, int length) {
+        int h = 1;
+        for (int i = from; i < from + length; i++) {
+            h = 31 * h + bytes[i];
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private int readLength(int offset) {
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = data[offset++];
+            length |= (b & 0x7F) << shift;
+            if (b >= 0) return length;
+        }
+    }
+
+    private static int lengthBytes(int length) {
+        return length < 1 << 7 ? 1 : length < 1 << 14 ? 2 : length < 1 << 21 ? 3 : length < 1 << 28 ? 4 : 5;
+    }
+
+    int garbageBytes() {
+        return garbage;
+    }
+
+    long estimatedBytes() {
+        return data.length + 4L * offsets.length;
+    }
+}
@@ -0,0 +1,264 @@
+package com.bookstore.online_bookstore.catalog;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * RowBitmap
+ * Compressed set of CatalogStore rows, split Roaring-style into chunks
+ * of 65536 rows. A chunk with few rows is a sorted char array, a dense
+ * one a 1024-word bitset, whichever is smaller (the switch is at 4096
+ * rows, where both take 8 KB). A rare facet value costs a few bytes per
+ * book; a common one at most one bit per row.
+ */
+final class RowBitmap {
+
+    // Beyond this many rows a chunk is smaller as a bitset
+    private static final int ARRAY_MAX = 4096;
+    private static final int WORDS = 1024;
+
+    private Chunk[] chunks = new Chunk[0];
+
+    // ============================================================
+    // CHANGES
+    // ============================================================
+    void add(int row) {
+        int key = row >>> 16;
+        if (key >= chunks.length) {
+            chunks = Arrays.copyOf(chunks, key + 1);
+        }
+        if (chunks[key] == null) {
+            chunks[key] = new Chunk();
+        }
+        chunks[key].add((char) row);
+    }
+
+    void remove(int row) {
+        int key = row >>> 16;
+        if (key < chunks.length && chunks[key] != null) {
+            chunks[key].remove((char) row);
+            if (chunks[key].cardinality == 0) {
+                chunks[key] = null;
+            }
+        }
+    }
+
+    // ============================================================
+    // QUERIES
+    // ============================================================
+    boolean contains(int row) {
+        int key = row >>> 16;
+        return key < chunks.length && chunks[key] != null && chunks[key].contains((char) row);
+    }
+
+    int cardinality() {
+        int cardinality = 0;
+        for (Chunk chunk : chunks) {
+            if (chunk != null) cardinality += chunk.cardinality;
+        }
+        return cardinality;
+    }
+
+    RowBitmap and(RowBitmap other) {
+        RowBitmap result = new RowBitmap();
+        int n = Math.min(chunks.length, other.chunks.length);
+        result.chunks = new Chunk[n];
+        for (int key = 0; key < n; key++) {
+            if (chunks[key] != null && other.chunks[key] != null) {
+                Chunk chunk = chunks[key].and(other.chunks[key]);
+                result.chunks[key] = chunk.cardinality > 0 ? chunk : null;
+            }
+        }
+        return result;
+    }
+
+    int andCardinality(RowBitmap other) {
+        int cardinality = 0;
+        int n = Math.min(chunks.length, other.chunks.length);
+        for (int key = 0; key < n; key++) {
+            if (chunks[key] != null && other.chunks[key] != null) {
+                cardinality += chunks[key].andCardinality(other.chunks[key]);
+            }
+        }
+        return cardinality;
+    }
+
+    RowBitmap or(RowBitmap other) {
+        RowBitmap result = new RowBitmap();
+        result.chunks = new Chunk[Math.max(chunks.length, other.chunks.length)];
+        for (int key = 0; key < result.chunks.length; key++) {
+            Chunk a = key < chunks.length ? chunks[key] : null;
+            Chunk b = key < other.chunks.length ? other.chunks[key] : null;
+            result.chunks[key] = a == null ? copy(b) : b == null ? copy(a) : a.or(b);
+        }
+        return result;
+    }
+
+    /**
+     * Passes rows to action in ascending order until it returns false.
+     */
+    void forEach(IntPredicate action) {
+        for (int key = 0; key < chunks.length; key++) {
+            if (chunks[key] != null && !chunks[key].forEach(key << 16, action)) return;
+        }
+    }
+
+    long estimatedBytes() {
+        long bytes = 16 + 4L * chunks.length;
+        for (Chunk chunk : chunks) {
+            if (chunk != null) bytes += 24 + (chunk.bits != null ? 8L * WORDS : 2L * chunk.array.length);
+        }
+        return bytes;
+    }
+
+    private static Chunk copy(Chunk chunk) {
+        if (chunk == null) return null;
+        Chunk copy = new Chunk();
+        copy.cardinality = chunk.cardinality;
+        copy.array = chunk.array != null ? chunk.array.clone() : null;
+        copy.bits = chunk.bits != null ? chunk.bits.clone() : null;
+        return copy;
+    }
+
+    // ============================================================
+    // CHUNK
+    // ============================================================
+    // Low 16 bits of up to 65536 rows: a sorted array, or a bitset once bits != null
+    private static final class Chunk {
+        char[] array = new char[4];
+        long[] bits;
+        int cardinality;
+
+        boolean contains(char value) {
+            if (bits != null) return (bits[value >>> 6] & (1L << value)) != 0;
+            return Arrays.binarySearch(array, 0, cardinality, value) >= 0;
+        }
+
+        void add(char value) {
+            if (bits != null) {
+                long before = bits[value >>> 6];
+                bits[value >>> 6] = before | (1L << value);
+                if (bits[value >>> 6] != before) cardinality++;
+                return;
+            }
+            int index = Arrays.binarySearch(array, 0, cardinality, value);
+            if (index >= 0) return;
+            if (cardinality == ARRAY_MAX) {
+                toBits();
+                add(value);
+                return;
+            }
+            index = -index - 1;
+            if (cardinality == array.length) {
+                array = Arrays.copyOf(array, Math.min(ARRAY_MAX, array.length * 2));
+            }
+            System.arraycopy(array, index, array, index + 1, cardinality - index);
+            array[index] = value;
+            cardinality++;
+        }
+
+        void remove(char value) {
+            if (bits != null) {
+                long before = bits[value >>> 6];
+                bits[value >>> 6] = before & ~(1L << value);
+                if (bits[value >>> 6] != before && --cardinality <= ARRAY_MAX) toArray();
+                return;
+            }
+            int index = Arrays.binarySearch(array, 0, cardinality, value);
+            if (index < 0) return;
+            System.arraycopy(array, index + 1, array, index, cardinality - index - 1);
+            cardinality--;
+        }
+
+        Chunk and(Chunk other) {
+            Chunk result = new Chunk();
+            if (bits != null && other.bits != null) {
+                result.bits = new long[WORDS];
+                for (int i = 0; i < WORDS; i++) {
+                    result.bits[i] = bits[i] & other.bits[i];
+                    result.cardinality += Long.bitCount(result.bits[i]);
+                }
+                if (result.cardinality <= ARRAY_MAX) result.toArray();
+                return result;
+            }
+            Chunk small = bits == null ? this : other;
+            Chunk large = small == this ? other : this;
+            result.array = new char[Math.max(1, small.cardinality)];
+            for (int i = 0; i < small.cardinality; i++) {
+                if (large.contains(small.array[i])) result.array[result.cardinality++] = small.array[i];
+            }
+            return result;
+        }
+
+        int andCardinality(Chunk other) {
+            int count = 0;
+            if (bits != null && other.bits != null) {
+                for (int i = 0; i < WORDS; i++) count += Long.bitCount(bits[i] & other.bits[i]);
+                return count;
+            }
+            Chunk small = bits == null ? this : other;
+            Chunk large = small == this ? other : this;
+            if (small.cardinality > large.cardinality && large.bits == null) {
+                Chunk swap = small;
+                small = large;
+                large = swap;
+            }
+            for (int i = 0; i < small.cardinality; i++) {
+                if (large.contains(small.array[i])) count++;
+            }
+            return count;
+        }
+
+        Chunk or(Chunk other) {
+            Chunk result = new Chunk();
+            result.bits = new long[WORDS];
+            for (Chunk chunk : new Chunk[] { this, other }) {
+                if (chunk.bits != null) {
+                    for (int i = 0; i < WORDS; i++) result.bits[i] |= chunk.bits[i];
+                } else {
+                    for (int i = 0; i < chunk.cardinality; i++) {
+                        result.bits[chunk.array[i] >>> 6] |= 1L << chunk.array[i];
+                    }
+                }
+            }
+            for (long word : result.bits) result.cardinality += Long.bitCount(word);
+            if (result.cardinality <= ARRAY_MAX) result.toArray();
+            return result;
+        }
+
+        boolean forEach(int base, IntPredicate action) {
+            if (bits == null) {
+                for (int i = 0; i < cardinality; i++) {
+                    if (!action.test(base | array[i])) return false;
+                }
+                return true;
+            }
+            for (int i = 0; i < WORDS; i++) {
+                for (long word = bits[i]; word != 0; word &= word - 1) {
+                    if (!action.test(base | (i << 6) | Long.numberOfTrailingZeros(word))) return false;
+                }
+            }
+            return true;
+        }
+
+        private void toBits() {
+            bits = new long[WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                bits[array[i] >>> 6] |= 1L << array[i];
+            }
+            array = null;
+        }
+
+        private void toArray() {
+            char[] values = new char[Math.max(1, cardinality)];
+            int n = 0;
+            for (int i = 0; i < WORDS; i++) {
+                for (long word = bits[i]; word != 0; word &= word - 1) {
+                    values[n++] = (char) ((i << 6) | Long.numberOfTrailingZeros(word));
+                }
+            }
+            array = values;
+            bits = null;
+        }
+    }
+}
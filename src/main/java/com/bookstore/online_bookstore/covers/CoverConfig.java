@@ -0,0 +1,35 @@
+package com.bookstore.online_bookstore.covers;
+
+import java.nio.file.Paths;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * CoverConfig
+ * Points the cover store at its directories and sizes the thumbnail
+ * pipeline from application properties; covers that were added while
+ * the app was down get their thumbnails at startup
+ */
+@Configuration
+public class CoverConfig {
+
+    @Bean
+    public CoverPipeline coverPipeline(
+            @Value("${bookstore.covers.dir:covers}") String dir,
+            @Value("${bookstore.covers.drop-dir:}") String dropDir,
+            @Value("${bookstore.covers.thumbnail-width:160}") int thumbnailWidth,
+            @Value("${bookstore.covers.thumbnail-height:240}") int thumbnailHeight,
+            @Value("${bookstore.covers.pipeline.threads:1}") int threads,
+            @Value("${bookstore.covers.pipeline.queue-size:10000}") int queueSize
+    ) {
+        CoverStore.configure(Paths.get(dir), dropDir.isBlank() ? null : Paths.get(dropDir),
+                thumbnailWidth, thumbnailHeight);
+        CoverPipeline.configure(threads, queueSize);
+
+        CoverPipeline pipeline = CoverPipeline.getInstance();
+        pipeline.generateMissing();
+        return pipeline;
+    }
+}
@@ -0,0 +1,166 @@
+package com.bookstore.online_bookstore.covers;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.bookstore.online_bookstore.model.Book;
+
+/**
+ * CoverPipeline
+ * Generates thumbnails in the background when books are saved, so the
+ * request that saved them never waits for image decoding. A book whose
+ * coverImageUrl is a file in the cover drop directory has it copied
+ * into the CoverStore first; remote URLs and other paths are left alone.
+ *
+ * The queue is bounded: if an import outruns the workers, the overflow
+ * is counted as dropped and waits for the book's next save (or, once
+ * its original is stored, the next generateMissing()).
+ */
+public class CoverPipeline {
+
+    public static final int DEFAULT_THREADS = 1;
+    public static final int DEFAULT_QUEUE_SIZE = 10_000;
+
+    private static CoverPipeline instance;
+
+    private final ThreadPoolExecutor executor;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong generated = new AtomicLong();
+    private final AtomicLong upToDate = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public CoverPipeline(int threads, int queueSize) {
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), task -> {
+                    Thread thread = new Thread(task, "cover-thumbnails-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    // ============================================================
+    // SINGLETON
+    // ============================================================
+    public static synchronized CoverPipeline getInstance() {
+        if (instance == null) {
+            instance = new CoverPipeline(DEFAULT_THREADS, DEFAULT_QUEUE_SIZE);
+        }
+        return instance;
+    }
+
+    /**
+     * Replaces the shared pipeline; books already queued on the old one
+     * are still processed.
+     */
+    public static synchronized void configure(int threads, int queueSize) {
+        if (instance != null) {
+            instance.executor.shutdown();
+        }
+        instance = new CoverPipeline(threads, queueSize);
+    }
+
+    // ============================================================
+    // SUBMIT
+    // ============================================================
+    /**
+     * Queues a thumbnail for every book whose cover is a file in the
+     * drop directory. Cheap enough to call on every save: books without
+     * one are skipped before anything is queued.
+     */
+    public void submitAll(Collection<Book> books) {
+        CoverStore store = CoverStore.getInstance();
+        for (Book book : books) {
+            Path source = store.localSource(book.getCoverImageUrl());
+            if (source != null) submit(book.getIsbn(), source);
+        }
+    }
+
+    /**
+     * Queues a thumbnail for isbn, importing source first when it is not
+     * null. A book that is already queued is not queued twice.
+     */
+    public void submit(String isbn, Path source) {
+        if (!CoverStore.isValidIsbn(isbn) || !pending.add(isbn)) return;
+
+        try {
+            executor.execute(() -> process(isbn, source));
+        } catch (RejectedExecutionException e) {
+            pending.remove(isbn);
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Queues every stored original whose thumbnail is missing or older
+     * than it, e.g. at startup or after covers were copied in by hand.
+     */
+    public int generateMissing() {
+        CoverStore store = CoverStore.getInstance();
+        Path dir = store.originalsDir();
+        if (!Files.isDirectory(dir)) return 0;
+
+        int queued = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                if (CoverStore.extension(file) == null) continue;
+                String name = file.getFileName().toString();
+                String isbn = name.substring(0, name.lastIndexOf('.'));
+                if (CoverStore.isValidIsbn(isbn) && !store.isThumbnailCurrent(isbn)) {
+                    submit(isbn, null);
+                    queued++;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("❌ Cover scan failed: " + e.getMessage());
+        }
+        return queued;
+    }
+
+    private void process(String isbn, Path source) {
+        CoverStore store = CoverStore.getInstance();
+        try {
+            if (source != null && !store.importOriginal(isbn, source) && store.original(isbn) == null) {
+                return; // not an image we can use, and nothing stored from before
+            }
+            if (store.isThumbnailCurrent(isbn)) {
+                upToDate.incrementAndGet();
+            } else if (store.generateThumbnail(isbn)) {
+                generated.incrementAndGet();
+            } else {
+                failed.incrementAndGet();
+                System.err.println("⚠️ Cover for " + isbn + " is not a readable image");
+            }
+        } catch (IOException | RuntimeException e) {
+            failed.incrementAndGet();
+            System.err.println("❌ Thumbnail for " + isbn + " failed: " + e.getMessage());
+        } finally {
+            pending.remove(isbn);
+        }
+    }
+
+    // ============================================================
+    // METRICS
+    // ============================================================
+    public Stats getStats() {
+        return new Stats(executor.getQueue().size(), executor.getActiveCount(),
+                generated.get(), upToDate.get(), failed.get(), dropped.get());
+    }
+
+    public record Stats(int queued, int active, long generated, long upToDate, long failed, long dropped) {}
+}
@@ -0,0 +1,259 @@
+package com.bookstore.online_bookstore.covers;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import javax.imageio.ImageIO;
+
+/**
+ * CoverStore
+ * Cover images on local disk, one original and one thumbnail per ISBN:
+ *
+ *   <root>/originals/<isbn>.<jpg|png|gif>
+ *   <root>/thumbnails/<isbn>.jpg
+ *
+ * Thumbnails are scaled to fit a fixed box, so listing pages download a
+ * few kilobytes per book instead of the full-size original.
+ *
+ * Originals are served without authentication, so a coverImageUrl that
+ * names a local file is only imported from the drop directory (if one is
+ * configured); paths anywhere else on the server are ignored.
+ */
+public class CoverStore {
+
+    public static final int DEFAULT_THUMBNAIL_WIDTH = 160;
+    public static final int DEFAULT_THUMBNAIL_HEIGHT = 240;
+
+    // Formats ImageIO can read without plugins, in lookup order
+    static final List<String> EXTENSIONS = List.of("jpg", "jpeg", "png", "gif");
+
+    // ISBNs end up in file names, so nothing that could leave the directory
+    private static final Pattern SAFE_ISBN = Pattern.compile("[0-9A-Za-z-]{1,32}");
+
+    private static volatile CoverStore instance = new CoverStore(Paths.get("covers"),
+            DEFAULT_THUMBNAIL_WIDTH, DEFAULT_THUMBNAIL_HEIGHT);
+
+    private final Path originals;
+    private final Path thumbnails;
+    private final Path dropDir;
+    private final int thumbnailWidth;
+    private final int thumbnailHeight;
+
+    public CoverStore(Path root, int thumbnailWidth, int thumbnailHeight) {
+        this(root, null, thumbnailWidth, thumbnailHeight);
+    }
+
+    /**
+     * dropDir is where local cover files may be imported from; null turns
+     * local imports off, leaving only originals copied in by hand.
+     */
+    public CoverStore(Path root, Path dropDir, int thumbnailWidth, int thumbnailHeight) {
+        if (thumbnailWidth < 1 || thumbnailHeight < 1) {
+            throw new IllegalArgumentException("Thumbnail size must be at least 1x1");
+        }
+        this.originals = root.resolve("originals");
+        this.thumbnails = root.resolve("thumbnails");
+        this.dropDir = dropDir != null ? dropDir.toAbsolutePath().normalize() : null;
+        this.thumbnailWidth = thumbnailWidth;
+        this.thumbnailHeight = thumbnailHeight;
+    }
+
+    public static CoverStore getInstance() {
+        return instance;
+    }
+
+    /**
+     * Replaces the shared store, e.g. with the directory from application config.
+     */
+    public static void configure(Path root, int thumbnailWidth, int thumbnailHeight) {
+        configure(root, null, thumbnailWidth, thumbnailHeight);
+    }
+
+    public static void configure(Path root, Path dropDir, int thumbnailWidth, int thumbnailHeight) {
+        instance = new CoverStore(root, dropDir, thumbnailWidth, thumbnailHeight);
+    }
+
+    // ============================================================
+    // LOOKUP
+    // ============================================================
+    public static boolean isValidIsbn(String isbn) {
+        return isbn != null && SAFE_ISBN.matcher(isbn).matches();
+    }
+
+    /**
+     * Stored original for isbn, or null if there is none.
+     */
+    public Path original(String isbn) {
+        checkIsbn(isbn);
+        for (String extension : EXTENSIONS) {
+            Path file = originals.resolve(isbn + "." + extension);
+            if (Files.isRegularFile(file)) return file;
+        }
+        return null;
+    }
+
+    /**
+     * Stored thumbnail for isbn, or null if it hasn't been generated.
+     */
+    public Path thumbnail(String isbn) {
+        checkIsbn(isbn);
+        Path file = thumbnails.resolve(isbn + ".jpg");
+        return Files.isRegularFile(file) ? file : null;
+    }
+
+    Path originalsDir() {
+        return originals;
+    }
+
+    // ============================================================
+    // IMPORT
+    // ============================================================
+    /**
+     * Local file a Book's coverImageUrl points at (a plain path, relative
+     * to the drop directory, or a file: URL), or null for remote URLs,
+     * blanks, missing files and anything outside the drop directory.
+     */
+    public Path localSource(String coverImageUrl) {
+        if (dropDir == null || coverImageUrl == null || coverImageUrl.isBlank()) return null;
+        String url = coverImageUrl.trim();
+        String lower = url.toLowerCase(Locale.ROOT);
+        Path file;
+        try {
+            if (lower.startsWith("file:")) {
+                file = Paths.get(URI.create(url));
+            } else if (lower.matches("^[a-z][a-z0-9+.-]*://.*")) {
+                return null;
+            } else {
+                file = Paths.get(url);
+            }
+        } catch (IllegalArgumentException e) { // includes InvalidPathException
+            return null;
+        }
+
+        // Normalized first so ".." can't climb out, then compared again
+        // with links resolved so a symlink in the drop directory can't either
+        file = dropDir.resolve(file).normalize();
+        try {
+            if (file.startsWith(dropDir) && file.toRealPath().startsWith(dropDir.toRealPath())) {
+                return file;
+            }
+        } catch (IOException e) {
+            return null; // missing file or drop directory
+        }
+        System.err.println("⚠️ Cover " + coverImageUrl + " is outside the cover drop directory, ignored");
+        return null;
+    }
+
+    /**
+     * Copies source in as the original for isbn, replacing any earlier
+     * one unless it is already up to date. Returns false if source isn't
+     * an image file we can serve.
+     */
+    public boolean importOriginal(String isbn, Path source) throws IOException {
+        checkIsbn(isbn);
+        String extension = extension(source);
+        if (extension == null || !Files.isRegularFile(source)) return false;
+
+        Files.createDirectories(originals);
+        Path target = originals.resolve(isbn + "." + extension);
+        // Re-saving a book must not touch an unchanged original, or its
+        // thumbnail would look stale and be regenerated every time
+        if (Files.isRegularFile(target) && Files.size(target) == Files.size(source)
+                && Files.getLastModifiedTime(target).compareTo(Files.getLastModifiedTime(source)) >= 0) {
+            return true;
+        }
+        Path temp = Files.createTempFile(originals, isbn, ".tmp");
+        try {
+            Files.copy(source, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        for (String other : EXTENSIONS) {
+            if (!other.equals(extension)) Files.deleteIfExists(originals.resolve(isbn + "." + other));
+        }
+        return true;
+    }
+
+    // ============================================================
+    // THUMBNAILS
+    // ============================================================
+    public boolean isThumbnailCurrent(String isbn) throws IOException {
+        Path original = original(isbn);
+        Path thumbnail = thumbnail(isbn);
+        return original != null && thumbnail != null
+                && Files.getLastModifiedTime(thumbnail).compareTo(Files.getLastModifiedTime(original)) >= 0;
+    }
+
+    /**
+     * Scales the original down to fit the thumbnail box (never up) and
+     * writes it as JPEG. Returns false if there is no readable original.
+     */
+    public boolean generateThumbnail(String isbn) throws IOException {
+        Path original = original(isbn);
+        if (original == null) return false;
+
+        BufferedImage image = ImageIO.read(original.toFile());
+        if (image == null) return false;
+
+        double scale = Math.min(1.0, Math.min(
+                (double) thumbnailWidth / image.getWidth(), (double) thumbnailHeight / image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        // JPEG has no alpha: transparent covers go onto white
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+
+        Files.createDirectories(thumbnails);
+        Path temp = Files.createTempFile(thumbnails, isbn, ".tmp");
+        try {
+            if (!ImageIO.write(scaled, "jpg", temp.toFile())) {
+                throw new IOException("No JPEG writer available");
+            }
+            Files.move(temp, thumbnails.resolve(isbn + ".jpg"),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return true;
+    }
+
+    // ============================================================
+    // UTILITY
+    // ============================================================
+    static String extension(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        if (dot < 0) return null;
+        String extension = name.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return EXTENSIONS.contains(extension) ? extension : null;
+    }
+
+    private static void checkIsbn(String isbn) {
+        if (!isValidIsbn(isbn)) {
+            throw new IllegalArgumentException("Invalid ISBN: " + isbn);
+        }
+    }
+}
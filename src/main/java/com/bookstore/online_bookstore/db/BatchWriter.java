@@ -0,0 +1,139 @@
+package com.bookstore.online_bookstore.db;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * BatchWriter
+ * Buffers rows for one INSERT/UPDATE statement and writes them in chunks,
+ * one transaction per chunk. A failed chunk is replayed row by row so the
+ * good rows are kept and each bad row is reported with its index.
+ *
+ * Not thread-safe; use one writer per producer.
+ */
+public class BatchWriter implements AutoCloseable {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private final DatabaseManager db;
+    private final String sql;
+    private final int chunkSize;
+
+    private final List<Object[]> pending = new ArrayList<>();
+    private final List<RowError> errors = new ArrayList<>();
+    private long firstPendingRow;
+    private long rowsWritten;
+    private long rowsChanged;
+    private long chunksCommitted;
+
+    BatchWriter(DatabaseManager db, String sql, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be at least 1");
+        }
+        this.db = db;
+        this.sql = sql;
+        this.chunkSize = chunkSize;
+    }
+
+    // ============================================================
+    // BATCHING
+    // ============================================================
+    public void addBatch(Object... params) {
+        pending.add(params);
+        if (pending.size() >= chunkSize) {
+            executeBatch();
+        }
+    }
+
+    /**
+     * Writes everything buffered so far in one transaction.
+     */
+    public void executeBatch() {
+        if (pending.isEmpty()) return;
+
+        try {
+            int[] counts = db.inTransaction(conn -> {
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    for (Object[] row : pending) {
+                        DatabaseManager.bind(ps, row);
+                        ps.addBatch();
+                    }
+                    return ps.executeBatch();
+                }
+            });
+            rowsWritten += pending.size();
+            for (int count : counts) {
+                rowsChanged += Math.max(count, 0);
+            }
+            chunksCommitted++;
+        } catch (SQLException e) {
+            // The chunk was rolled back as a whole: find the bad rows
+            replayRowByRow();
+        }
+
+        firstPendingRow += pending.size();
+        pending.clear();
+    }
+
+    private void replayRowByRow() {
+        List<RowError> chunkErrors = new ArrayList<>();
+        long[] changed = { 0 };
+        try {
+            int written = db.inTransaction(conn -> {
+                int ok = 0;
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < pending.size(); i++) {
+                        try {
+                            DatabaseManager.bind(ps, pending.get(i));
+                            changed[0] += ps.executeUpdate();
+                            ok++;
+                        } catch (SQLException e) {
+                            chunkErrors.add(new RowError(firstPendingRow + i, e.getMessage()));
+                        }
+                    }
+                }
+                return ok;
+            });
+            rowsWritten += written;
+            rowsChanged += changed[0];
+            chunksCommitted++;
+            errors.addAll(chunkErrors);
+        } catch (SQLException e) {
+            // Nothing from this chunk was kept
+            for (int i = 0; i < pending.size(); i++) {
+                errors.add(new RowError(firstPendingRow + i, e.getMessage()));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        executeBatch();
+    }
+
+    // ============================================================
+    // RESULT
+    // ============================================================
+    public Result getResult() {
+        return new Result(rowsWritten, rowsChanged, chunksCommitted, List.copyOf(errors));
+    }
+
+    /**
+     * rowsWritten counts statements that ran without error; rowsChanged
+     * the rows they changed as the driver reports it, so an UPDATE whose
+     * WHERE matched nothing counts in the first but not the second.
+     */
+    public record Result(long rowsWritten, long rowsChanged, long chunksCommitted, List<RowError> errors) {
+
+        public boolean hasErrors() {
+            return !errors.isEmpty();
+        }
+    }
+
+    /**
+     * rowIndex counts from 0 in the order rows were added.
+     */
+    public record RowError(long rowIndex, String message) {}
+}
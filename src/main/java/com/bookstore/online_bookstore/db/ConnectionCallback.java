@@ -0,0 +1,14 @@
+package com.bookstore.online_bookstore.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * ConnectionCallback
+ * Unit of work that runs against a borrowed connection
+ */
+@FunctionalInterface
+public interface ConnectionCallback<T> {
+
+    T doInConnection(Connection connection) throws SQLException;
+}
@@ -0,0 +1,192 @@
+package com.bookstore.online_bookstore.db;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.sqlite.SQLiteConfig;
+
+/**
+ * ConnectionPool
+ * SQLite connections in WAL mode: a fixed set of read-only connections
+ * plus one writer. WAL lets readers run while the writer commits, and
+ * SQLite only ever allows one writer, so writes queue on a single lock.
+ */
+public class ConnectionPool {
+
+    private final List<Connection> readers = new ArrayList<>();
+    private final BlockingQueue<Connection> idleReaders;
+    private final Connection writer;
+    private final ReentrantLock writerLock = new ReentrantLock(true);
+    private final long acquireTimeoutMillis;
+
+    private final AtomicLong readAcquired = new AtomicLong();
+    private final AtomicLong readTimeouts = new AtomicLong();
+    private final AtomicLong readWaitNanos = new AtomicLong();
+    private final AtomicLong writeAcquired = new AtomicLong();
+    private final AtomicLong writeTimeouts = new AtomicLong();
+    private final AtomicLong writeWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public ConnectionPool(String url, int readPoolSize, long acquireTimeoutMillis) throws SQLException {
+        if (readPoolSize < 1) {
+            throw new IllegalArgumentException("readPoolSize must be at least 1");
+        }
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.idleReaders = new ArrayBlockingQueue<>(readPoolSize);
+
+        // Writer first: it creates the file and switches it to WAL,
+        // which read-only connections are not allowed to do
+        SQLiteConfig writerConfig = baseConfig();
+        writerConfig.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        writerConfig.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        this.writer = DriverManager.getConnection(url, writerConfig.toProperties());
+
+        try {
+            SQLiteConfig readerConfig = baseConfig();
+            readerConfig.setReadOnly(true);
+            for (int i = 0; i < readPoolSize; i++) {
+                Connection reader = DriverManager.getConnection(url, readerConfig.toProperties());
+                readers.add(reader);
+                idleReaders.add(reader);
+            }
+        } catch (SQLException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private SQLiteConfig baseConfig() {
+        SQLiteConfig config = new SQLiteConfig();
+        config.enforceForeignKeys(true);
+        config.setBusyTimeout((int) Math.min(Integer.MAX_VALUE, acquireTimeoutMillis));
+        return config;
+    }
+
+    // ============================================================
+    // READ
+    // ============================================================
+    public <T> T withReader(ConnectionCallback<T> work) throws SQLException {
+        // A thread inside a write transaction must see its own uncommitted rows
+        if (writerLock.isHeldByCurrentThread()) {
+            return work.doInConnection(writer);
+        }
+
+        long start = System.nanoTime();
+        Connection conn;
+        try {
+            conn = idleReaders.poll(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a read connection", e);
+        }
+        long waited = recordWait(readWaitNanos, start);
+
+        if (conn == null) {
+            readTimeouts.incrementAndGet();
+            throw new SQLTimeoutException("No read connection available after "
+                    + TimeUnit.NANOSECONDS.toMillis(waited) + " ms");
+        }
+
+        readAcquired.incrementAndGet();
+        try {
+            return work.doInConnection(conn);
+        } finally {
+            idleReaders.offer(conn);
+        }
+    }
+
+    // ============================================================
+    // WRITE
+    // ============================================================
+    public <T> T withWriter(ConnectionCallback<T> work) throws SQLException {
+        long start = System.nanoTime();
+        boolean locked;
+        try {
+            locked = writerLock.tryLock(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the write connection", e);
+        }
+        long waited = recordWait(writeWaitNanos, start);
+
+        if (!locked) {
+            writeTimeouts.incrementAndGet();
+            throw new SQLTimeoutException("Write connection busy after "
+                    + TimeUnit.NANOSECONDS.toMillis(waited) + " ms");
+        }
+
+        writeAcquired.incrementAndGet();
+        try {
+            return work.doInConnection(writer);
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    private long recordWait(AtomicLong total, long start) {
+        long waited = System.nanoTime() - start;
+        total.addAndGet(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+        return waited;
+    }
+
+    // ============================================================
+    // METRICS
+    // ============================================================
+    public Stats getStats() {
+        return new Stats(
+                readers.size(),
+                idleReaders.size(),
+                readAcquired.get(),
+                readTimeouts.get(),
+                TimeUnit.NANOSECONDS.toMillis(readWaitNanos.get()),
+                writeAcquired.get(),
+                writeTimeouts.get(),
+                TimeUnit.NANOSECONDS.toMillis(writeWaitNanos.get()),
+                TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get())
+        );
+    }
+
+    public record Stats(
+            int readPoolSize,
+            int idleReaders,
+            long readAcquired,
+            long readTimeouts,
+            long readWaitMillis,
+            long writeAcquired,
+            long writeTimeouts,
+            long writeWaitMillis,
+            long maxWaitMillis
+    ) {}
+
+    // ============================================================
+    // SHUTDOWN
+    // ============================================================
+    public void close() {
+        for (Connection reader : readers) {
+            closeQuietly(reader);
+        }
+        readers.clear();
+        idleReaders.clear();
+        if (writer != null) {
+            closeQuietly(writer);
+        }
+    }
+
+    private static void closeQuietly(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            System.err.println("❌ Error closing pooled connection: " + e.getMessage());
+        }
+    }
+}
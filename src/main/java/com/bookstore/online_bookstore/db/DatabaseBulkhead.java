@@ -0,0 +1,142 @@
+package com.bookstore.online_bookstore.db;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DatabaseBulkhead
+ * Caps how many threads work with SQLite at once. On virtual threads
+ * every request can block on JDBC, so without a cap thousands of them
+ * pile onto the connection pool and SQLite's own locks; here the excess
+ * waits in a bounded, fair queue and is turned away once that is full.
+ *
+ * Permits are per thread and re-entrant: a query made inside a
+ * transaction does not take a second permit.
+ */
+public class DatabaseBulkhead {
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long timeoutMillis;
+    private final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+
+    public DatabaseBulkhead(int maxConcurrent, int maxQueued, long timeoutMillis) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent must be at least 1");
+        }
+        if (maxQueued < 0) {
+            throw new IllegalArgumentException("maxQueued cannot be negative");
+        }
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Runs work once a permit is free, waiting at most timeoutMillis.
+     */
+    public <T> T call(Work<T> work) throws SQLException {
+        int[] held = depth.get();
+        if (held[0] > 0) {
+            return enter(held, work);
+        }
+
+        // Only skip the queue when nobody is in it
+        if (queued.get() > 0 || !permits.tryAcquire()) {
+            acquireQueued();
+        }
+        admitted.incrementAndGet();
+        try {
+            return enter(held, work);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void acquireQueued() throws SQLException {
+        int waiting = queued.incrementAndGet();
+        try {
+            if (waiting > maxQueued) {
+                rejected.incrementAndGet();
+                throw new SQLTransientConnectionException("Database busy: "
+                        + (waiting - 1) + " requests already waiting");
+            }
+            maxQueueDepth.accumulateAndGet(waiting, Math::max);
+
+            long start = System.nanoTime();
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for the database", e);
+            } finally {
+                waitNanos.addAndGet(System.nanoTime() - start);
+            }
+
+            if (!acquired) {
+                timeouts.incrementAndGet();
+                throw new SQLTimeoutException("Database busy after " + timeoutMillis + " ms");
+            }
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    private static <T> T enter(int[] held, Work<T> work) throws SQLException {
+        held[0]++;
+        try {
+            return work.call();
+        } finally {
+            held[0]--;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Work<T> {
+        T call() throws SQLException;
+    }
+
+    // ============================================================
+    // METRICS
+    // ============================================================
+    public Stats getStats() {
+        return new Stats(
+                maxConcurrent,
+                maxConcurrent - permits.availablePermits(),
+                maxQueued,
+                queued.get(),
+                maxQueueDepth.get(),
+                admitted.get(),
+                rejected.get(),
+                timeouts.get(),
+                TimeUnit.NANOSECONDS.toMillis(waitNanos.get())
+        );
+    }
+
+    public record Stats(
+            int maxConcurrent,
+            int active,
+            int maxQueued,
+            int queueDepth,
+            int maxQueueDepth,
+            long admitted,
+            long rejected,
+            long timeouts,
+            long waitMillis
+    ) {}
+}
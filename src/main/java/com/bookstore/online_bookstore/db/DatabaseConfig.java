@@ -0,0 +1,51 @@
+package com.bookstore.online_bookstore.db;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * DatabaseConfig
+ * Opens the shared DatabaseManager when the application starts
+ * and applies any pending schema migrations
+ */
+@Configuration
+public class DatabaseConfig {
+
+    @Bean(destroyMethod = "disconnect")
+    public DatabaseManager databaseManager(
+            @Value("${bookstore.db.pool.enabled:false}") boolean pooled,
+            @Value("${bookstore.db.pool.readers:4}") int readers,
+            @Value("${bookstore.db.pool.acquire-timeout-ms:5000}") long acquireTimeoutMillis,
+            @Value("${bookstore.db.migrate-on-startup:true}") boolean migrate,
+            @Value("${bookstore.db.slow-query-ms:100}") long slowQueryMillis,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${bookstore.db.bulkhead.enabled:false}") boolean bulkhead,
+            @Value("${bookstore.db.bulkhead.max-concurrent:5}") int maxConcurrent,
+            @Value("${bookstore.db.bulkhead.max-queued:1000}") int maxQueued,
+            @Value("${bookstore.db.bulkhead.timeout-ms:5000}") long bulkheadTimeoutMillis
+    ) {
+        DatabaseManager db = DatabaseManager.getInstance();
+        db.getTracer().setSlowThresholdMillis(slowQueryMillis);
+
+        // Spring quietly keeps platform threads on older runtimes
+        if (virtualThreads && Runtime.version().feature() < 21) {
+            System.err.println("⚠️ spring.threads.virtual.enabled needs Java 21+, running on "
+                    + Runtime.version().feature() + ": requests stay on platform threads");
+        }
+        if (bulkhead) {
+            db.enableBulkhead(maxConcurrent, maxQueued, bulkheadTimeoutMillis);
+        }
+
+        if (pooled) {
+            db.connectPooled(readers, acquireTimeoutMillis);
+        } else {
+            db.connect();
+        }
+
+        if (migrate && !new SchemaMigrator(db).migrate()) {
+            throw new IllegalStateException("Database migration failed");
+        }
+        return db;
+    }
+}
@@ -1,20 +1,52 @@
 package com.bookstore.online_bookstore.db;
 
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetFactory;
+import javax.sql.rowset.RowSetProvider;
 
 /**
  * DatabaseManager
- * Singleton class to manage SQLite database connection
+ * Singleton class to manage SQLite database connection.
+ * In pooled mode queries run on a pool of read-only WAL connections
+ * and updates go through a single writer connection.
+ * Prepared statements are cached per connection and reused by SQL text.
+ * An optional bulkhead bounds how many threads use the database at once.
  */
 public class DatabaseManager {
 
     private static DatabaseManager instance;
     private static final String DB_NAME = "online_bookstore.db";
-    private static final String DB_URL = "jdbc:sqlite:" + DB_NAME;
+
+    // Lets tools such as the benchmarks point the app at another file
+    public static final String DB_FILE_PROPERTY = "bookstore.db.file";
 
     private Connection connection;
+    private volatile ConnectionPool pool;
+    private volatile DatabaseBulkhead bulkhead;
+    private final RowSetFactory rowSetFactory;
+
+    private final Map<Connection, StatementCache> statementCaches = new ConcurrentHashMap<>();
+    private volatile int statementCacheSize = 64;
+
+    private static final Object[] NO_PARAMS = {};
+    private final SqlTracer tracer = new SqlTracer();
+
+    // Actions waiting for the current thread's outermost transaction to commit
+    private final ThreadLocal<List<Runnable>> afterCommit = new ThreadLocal<>();
 
-    private DatabaseManager() {}
+    private DatabaseManager() {
+        try {
+            rowSetFactory = RowSetProvider.newFactory();
+        } catch (SQLException e) {
+            throw new IllegalStateException("RowSet support unavailable", e);
+        }
+    }
 
     // ============================================================
     // SINGLETON
@@ -30,9 +62,12 @@ public class DatabaseManager {
     // CONNECTION
     // ============================================================
     public boolean connect() {
+        if (pool != null) {
+            return true;
+        }
         try {
             if (connection == null || connection.isClosed()) {
-                connection = DriverManager.getConnection(DB_URL);
+                connection = DriverManager.getConnection(dbUrl());
 
                 // IMPORTANT: Enable foreign keys for SQLite
                 try (Statement stmt = connection.createStatement()) {
@@ -46,7 +81,41 @@ public class DatabaseManager {
         }
     }
 
-    public void disconnect() {
+    /**
+     * Switches to pooled mode: WAL journal, readPoolSize read-only
+     * connections and one writer, each waited on for at most
+     * acquireTimeoutMillis.
+     */
+    public synchronized boolean connectPooled(int readPoolSize, long acquireTimeoutMillis) {
+        if (pool != null) {
+            return true;
+        }
+        try {
+            pool = new ConnectionPool(dbUrl(), readPoolSize, acquireTimeoutMillis);
+
+            // The pool's writer replaces the single shared connection
+            if (connection != null && !connection.isClosed()) {
+                closeStatementCache(connection);
+                connection.close();
+            }
+            connection = null;
+            return true;
+        } catch (SQLException e) {
+            System.err.println("❌ Database pool startup failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    public synchronized void disconnect() {
+        for (StatementCache cache : statementCaches.values()) {
+            cache.close();
+        }
+        statementCaches.clear();
+
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
         try {
             if (connection != null && !connection.isClosed()) {
                 connection.close();
@@ -56,18 +125,130 @@ public class DatabaseManager {
         }
     }
 
-    public Connection getConnection() {
-        return connection;
+    public boolean isPooled() {
+        return pool != null;
+    }
+
+    public ConnectionPool.Stats getPoolStats() {
+        ConnectionPool p = pool;
+        return p != null ? p.getStats() : null;
+    }
+
+    private <T> T withReadConnection(ConnectionCallback<T> work) throws SQLException {
+        return admit(() -> {
+            ConnectionPool p = pool;
+            return p != null ? p.withReader(work) : withSharedConnection(work);
+        });
+    }
+
+    private <T> T withWriteConnection(ConnectionCallback<T> work) throws SQLException {
+        return admit(() -> {
+            ConnectionPool p = pool;
+            return p != null ? p.withWriter(work) : withSharedConnection(work);
+        });
+    }
+
+    // Cached statements must not be used by two threads at once
+    private <T> T withSharedConnection(ConnectionCallback<T> work) throws SQLException {
+        Connection conn = connection;
+        if (conn == null) {
+            throw new SQLException("Database is not connected");
+        }
+        synchronized (conn) {
+            return work.doInConnection(conn);
+        }
+    }
+
+    // ============================================================
+    // BULKHEAD
+    // ============================================================
+    /**
+     * Lets at most maxConcurrent threads use the database at once; up to
+     * maxQueued more wait, each for at most timeoutMillis, and the rest
+     * fail straight away. Meant for virtual-thread request handling,
+     * where the request thread count no longer bounds database load.
+     */
+    public void enableBulkhead(int maxConcurrent, int maxQueued, long timeoutMillis) {
+        bulkhead = new DatabaseBulkhead(maxConcurrent, maxQueued, timeoutMillis);
+    }
+
+    public void disableBulkhead() {
+        bulkhead = null;
+    }
+
+    public DatabaseBulkhead.Stats getBulkheadStats() {
+        DatabaseBulkhead b = bulkhead;
+        return b != null ? b.getStats() : null;
+    }
+
+    private <T> T admit(DatabaseBulkhead.Work<T> work) throws SQLException {
+        DatabaseBulkhead b = bulkhead;
+        return b != null ? b.call(work) : work.call();
+    }
+
+    // ============================================================
+    // STATEMENT CACHE
+    // ============================================================
+    public void setStatementCacheSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Statement cache size must be at least 1");
+        }
+        this.statementCacheSize = size;
+    }
+
+    public StatementCache.Stats getStatementCacheStats() {
+        StatementCache.Stats total = new StatementCache.Stats(0, 0, 0, 0);
+        for (StatementCache cache : statementCaches.values()) {
+            total = total.plus(cache.getStats());
+        }
+        return total;
+    }
+
+    private <T> T withStatement(Connection conn, String sql, Object[] params,
+                                StatementCallback<T> work) throws SQLException {
+        StatementCache cache = statementCaches.computeIfAbsent(
+                conn, c -> new StatementCache(statementCacheSize));
+        PreparedStatement ps = cache.prepare(conn, sql);
+        try {
+            ps.clearParameters();
+            bind(ps, params);
+            return work.doInStatement(ps);
+        } catch (SQLException | RuntimeException e) {
+            cache.evict(sql);
+            throw e;
+        }
+    }
+
+    private void closeStatementCache(Connection conn) {
+        StatementCache cache = statementCaches.remove(conn);
+        if (cache != null) {
+            cache.close();
+        }
+    }
+
+    @FunctionalInterface
+    private interface StatementCallback<T> {
+        T doInStatement(PreparedStatement ps) throws SQLException;
     }
 
     // ============================================================
     // BASIC EXECUTION
     // ============================================================
     public void executeUpdate(String sql) {
-        try (Statement stmt = connection.createStatement()) {
-            stmt.executeUpdate(sql);
+        long start = System.nanoTime();
+        long rows = 0;
+        boolean failed = false;
+        try {
+            rows = withWriteConnection(conn -> {
+                try (Statement stmt = conn.createStatement()) {
+                    return stmt.executeUpdate(sql);
+                }
+            });
         } catch (SQLException e) {
+            failed = true;
             System.err.println("❌ SQL Update Failed: " + e.getMessage());
+        } finally {
+            trace(sql, NO_PARAMS, start, rows, failed);
         }
     }
 
@@ -75,57 +256,279 @@ public class DatabaseManager {
     // PREPARED STATEMENT
     // ============================================================
     public void executePrepared(String sql, Object... params) {
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-
-            for (int i = 0; i < params.length; i++) {
-                ps.setObject(i + 1, params[i]);
-            }
-
-            ps.executeUpdate();
+        long start = System.nanoTime();
+        long rows = 0;
+        boolean failed = false;
+        try {
+            rows = withWriteConnection(conn ->
+                    withStatement(conn, sql, params, PreparedStatement::executeUpdate));
         } catch (SQLException e) {
+            failed = true;
             System.err.println("❌ Prepared SQL Failed: " + e.getMessage());
+        } finally {
+            trace(sql, params, start, rows, failed);
         }
     }
 
     // ============================================================
     // QUERY
     // ============================================================
+    /**
+     * Returns a detached copy of the rows, so the statement stays cached
+     * and the connection is free again before the caller reads anything.
+     * Prefer query/queryOne, which map rows without the copy.
+     */
     public ResultSet executeQuery(String sql, Object... params) {
+        long start = System.nanoTime();
+        long rows = 0;
+        boolean failed = false;
         try {
-            PreparedStatement ps = connection.prepareStatement(sql);
+            CachedRowSet result = withReadConnection(conn ->
+                    withStatement(conn, sql, params, ps -> {
+                        try (ResultSet rs = ps.executeQuery()) {
+                            CachedRowSet copy = rowSetFactory.createCachedRowSet();
+                            copy.populate(rs);
+                            return copy;
+                        }
+                    }));
+            rows = result.size();
+            return result;
+        } catch (SQLException e) {
+            failed = true;
+            System.err.println("❌ Query Failed: " + e.getMessage());
+            return null;
+        } finally {
+            trace(sql, params, start, rows, failed);
+        }
+    }
 
-            for (int i = 0; i < params.length; i++) {
-                ps.setObject(i + 1, params[i]);
-            }
+    public <T> List<T> query(String sql, RowMapper<T> mapper, Object... params) {
+        try {
+            return queryOrThrow(sql, mapper, params);
+        } catch (SQLException e) {
+            System.err.println("❌ Query Failed: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
 
-            return ps.executeQuery();
+    /**
+     * Maps the first row only; null when there are no rows.
+     */
+    public <T> T queryOne(String sql, RowMapper<T> mapper, Object... params) {
+        try {
+            return queryOneOrThrow(sql, mapper, params);
         } catch (SQLException e) {
             System.err.println("❌ Query Failed: " + e.getMessage());
             return null;
         }
     }
 
+    /**
+     * Like query, but a failure throws instead of reading as no rows.
+     * For reads inside inTransaction, which must roll back rather than
+     * act on a missing row, and for reads that must not come up short.
+     */
+    public <T> List<T> queryOrThrow(String sql, RowMapper<T> mapper, Object... params) throws SQLException {
+        long start = System.nanoTime();
+        long rows = 0;
+        boolean failed = false;
+        try {
+            List<T> results = withReadConnection(conn ->
+                    withStatement(conn, sql, params, ps -> {
+                        List<T> mapped = new ArrayList<>();
+                        try (ResultSet rs = ps.executeQuery()) {
+                            while (rs.next()) {
+                                mapped.add(mapper.mapRow(rs));
+                            }
+                        }
+                        return mapped;
+                    }));
+            rows = results.size();
+            return results;
+        } catch (SQLException e) {
+            failed = true;
+            throw e;
+        } finally {
+            trace(sql, params, start, rows, failed);
+        }
+    }
+
+    public <T> T queryOneOrThrow(String sql, RowMapper<T> mapper, Object... params) throws SQLException {
+        long start = System.nanoTime();
+        long rows = 0;
+        boolean failed = false;
+        try {
+            T result = withReadConnection(conn ->
+                    withStatement(conn, sql, params, ps -> {
+                        try (ResultSet rs = ps.executeQuery()) {
+                            return rs.next() ? mapper.mapRow(rs) : null;
+                        }
+                    }));
+            rows = result != null ? 1 : 0;
+            return result;
+        } catch (SQLException e) {
+            failed = true;
+            throw e;
+        } finally {
+            trace(sql, params, start, rows, failed);
+        }
+    }
+
+    // ============================================================
+    // TRACING
+    // ============================================================
+    public SqlTracer getTracer() {
+        return tracer;
+    }
+
+    private void trace(String sql, Object[] params, long start, long rows, boolean failed) {
+        long nanos = System.nanoTime() - start;
+        tracer.record(sql, nanos, rows, failed);
+
+        if (tracer.isSlow(nanos)) {
+            List<String> plan = explain(sql, params);
+            tracer.recordSlow(sql, nanos, rows, plan);
+            System.err.printf("🐢 Slow SQL (%.1f ms, %d rows): %s%n",
+                    nanos / 1_000_000.0, rows, SqlTracer.normalize(sql));
+        }
+    }
+
+    // Plan of a statement that was slow; not traced itself
+    private List<String> explain(String sql, Object[] params) {
+        try {
+            return withReadConnection(conn -> {
+                try (PreparedStatement ps = conn.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+                    bind(ps, params);
+                    List<String> plan = new ArrayList<>();
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            plan.add(rs.getString("detail"));
+                        }
+                    }
+                    return plan;
+                }
+            });
+        } catch (SQLException e) {
+            return List.of("plan unavailable: " + e.getMessage());
+        }
+    }
+
+    // ============================================================
+    // TRANSACTIONS & BATCHES
+    // ============================================================
+    /**
+     * Runs work on the write connection inside one transaction, rolling
+     * back if it throws. Nested calls run in a savepoint of the outer
+     * transaction, so a failed inner call only undoes its own writes.
+     * Actions registered with afterCommit run once the outermost
+     * transaction has committed, after the writer is released.
+     */
+    public <T> T inTransaction(ConnectionCallback<T> work) throws SQLException {
+        List<Runnable> outer = afterCommit.get();
+        if (outer != null) {
+            return withWriteConnection(conn -> {
+                int registered = outer.size();
+                Savepoint savepoint = conn.setSavepoint();
+                try {
+                    T result = work.doInConnection(conn);
+                    conn.releaseSavepoint(savepoint);
+                    return result;
+                } catch (SQLException | RuntimeException e) {
+                    conn.rollback(savepoint);
+                    outer.subList(registered, outer.size()).clear();
+                    throw e;
+                }
+            });
+        }
+
+        List<Runnable> pending = new ArrayList<>();
+        afterCommit.set(pending);
+        T result;
+        try {
+            result = withWriteConnection(conn -> {
+                conn.setAutoCommit(false);
+                try {
+                    T committed = work.doInConnection(conn);
+                    conn.commit();
+                    return committed;
+                } catch (SQLException | RuntimeException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            });
+        } finally {
+            afterCommit.remove();
+        }
+
+        for (Runnable action : pending) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                System.err.println("❌ After-commit action failed: " + e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Runs action once the current thread's transaction commits, or now
+     * when there is none. Dropped if the transaction (or the savepoint it
+     * was registered in) rolls back. For in-memory caches that must not
+     * see uncommitted rows.
+     */
+    public void afterCommit(Runnable action) {
+        List<Runnable> pending = afterCommit.get();
+        if (pending != null) {
+            pending.add(action);
+        } else {
+            action.run();
+        }
+    }
+
+    public BatchWriter batch(String sql) {
+        return new BatchWriter(this, sql, BatchWriter.DEFAULT_CHUNK_SIZE);
+    }
+
+    public BatchWriter batch(String sql, int chunkSize) {
+        return new BatchWriter(this, sql, chunkSize);
+    }
+
     public int getTableRowCount(String tableName) {
         String sql = "SELECT COUNT(*) FROM " + tableName;
 
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            return rs.next() ? rs.getInt(1) : 0;
+        try {
+            return withReadConnection(conn -> {
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery(sql)) {
 
+                    return rs.next() ? rs.getInt(1) : 0;
+                }
+            });
         } catch (SQLException e) {
             return -1;
         }
     }
 
+    /**
+     * Sets params as ps's parameters, in order. For statements callers
+     * prepare themselves on an inTransaction connection.
+     */
+    public static void bind(PreparedStatement ps, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            ps.setObject(i + 1, params[i]);
+        }
+    }
+
     // ============================================================
     // UTILITY
     // ============================================================
     public static String getDbFile() {
-        return DB_NAME;
+        return System.getProperty(DB_FILE_PROPERTY, DB_NAME);
     }
 
-    public PreparedStatement prepareStatement(String sql) throws SQLException {
-        return connection.prepareStatement(sql);
+    private static String dbUrl() {
+        return "jdbc:sqlite:" + getDbFile();
     }
 }
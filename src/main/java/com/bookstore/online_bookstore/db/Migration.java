@@ -0,0 +1,31 @@
+package com.bookstore.online_bookstore.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Migration
+ * One versioned schema change. Applied once, inside a transaction,
+ * and recorded in schema_migrations.
+ */
+public record Migration(int version, String description, Step step) {
+
+    @FunctionalInterface
+    public interface Step {
+        void apply(DatabaseManager db, Connection conn) throws SQLException;
+    }
+
+    /**
+     * Migration made of plain SQL statements, run in order.
+     */
+    public static Migration sql(int version, String description, String... statements) {
+        return new Migration(version, description, (db, conn) -> {
+            try (Statement stmt = conn.createStatement()) {
+                for (String sql : statements) {
+                    stmt.executeUpdate(sql);
+                }
+            }
+        });
+    }
+}
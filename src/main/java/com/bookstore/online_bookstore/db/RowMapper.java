@@ -0,0 +1,14 @@
+package com.bookstore.online_bookstore.db;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * RowMapper
+ * Turns the current row of a ResultSet into an object
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    T mapRow(ResultSet rs) throws SQLException;
+}
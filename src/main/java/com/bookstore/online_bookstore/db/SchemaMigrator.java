@@ -0,0 +1,473 @@
+package com.bookstore.online_bookstore.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * SchemaMigrator
+ * Brings the database schema up to the latest version at startup.
+ * Applied versions are recorded in schema_migrations, so each migration
+ * runs exactly once per database file.
+ */
+public class SchemaMigrator {
+
+    // ============================================================
+    // MIGRATIONS (append only; never edit one that has shipped)
+    // ============================================================
+    static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Baseline tables from DatabaseSetup", SchemaMigrator::createBaseline),
+
+            new Migration(2, "Add the Book columns missing from early books tables",
+                    SchemaMigrator::addMissingBookColumns),
+
+            Migration.sql(3, "Indexes for foreign-key and hot-path lookups",
+                    "CREATE INDEX IF NOT EXISTS idx_cart_items_cart ON cart_items(cartID)",
+                    "CREATE INDEX IF NOT EXISTS idx_order_items_order ON order_items(orderID)",
+                    "CREATE INDEX IF NOT EXISTS idx_orders_user ON orders(userID)",
+                    "CREATE INDEX IF NOT EXISTS idx_notifications_user ON notifications(userID)",
+                    "CREATE INDEX IF NOT EXISTS idx_books_author ON books(author)",
+                    "CREATE INDEX IF NOT EXISTS idx_discounts_type_active ON discounts(discountType, active)"),
+
+            // Discount types come from the pricing rules registered at runtime,
+            // so the table can no longer pin them down with a CHECK
+            Migration.sql(4, "Allow any discount type in discounts",
+                    """
+                    CREATE TABLE discounts_new (
+                        discountID INTEGER PRIMARY KEY AUTOINCREMENT,
+                        discountType TEXT NOT NULL,
+                        targetValue TEXT,
+                        percentage REAL NOT NULL,
+                        active INTEGER DEFAULT 1
+                    )
+                    """,
+                    """
+                    INSERT INTO discounts_new (discountID, discountType, targetValue, percentage, active)
+                    SELECT discountID, discountType, targetValue, percentage, active FROM discounts
+                    """,
+                    "DROP TABLE discounts",
+                    "ALTER TABLE discounts_new RENAME TO discounts",
+                    "CREATE INDEX IF NOT EXISTS idx_discounts_type_active ON discounts(discountType, active)"),
+
+            // Carts keep running totals, updated by CartService with every item change.
+            // Lines remember the price and genre they were added with, so removing one
+            // takes back exactly what adding it put in. (cartID, isbn) replaces the
+            // cartID-only index from V3.
+            Migration.sql(5, "Running cart totals",
+                    "ALTER TABLE shopping_cart ADD COLUMN subtotal REAL NOT NULL DEFAULT 0",
+                    "ALTER TABLE shopping_cart ADD COLUMN itemCount INTEGER NOT NULL DEFAULT 0",
+                    "ALTER TABLE cart_items ADD COLUMN unitPrice REAL NOT NULL DEFAULT 0",
+                    "ALTER TABLE cart_items ADD COLUMN genre TEXT",
+                    """
+                    CREATE TABLE cart_genre_totals (
+                        cartID INTEGER NOT NULL,
+                        genre TEXT NOT NULL,
+                        quantity INTEGER NOT NULL,
+                        PRIMARY KEY (cartID, genre),
+                        FOREIGN KEY (cartID) REFERENCES shopping_cart(cartID)
+                    ) WITHOUT ROWID
+                    """,
+                    "CREATE INDEX idx_cart_items_cart_isbn ON cart_items(cartID, isbn)",
+                    "DROP INDEX IF EXISTS idx_cart_items_cart",
+                    """
+                    UPDATE cart_items SET
+                        unitPrice = COALESCE((SELECT price FROM books WHERE books.isbn = cart_items.isbn), 0),
+                        genre = (SELECT genre FROM books WHERE books.isbn = cart_items.isbn)
+                    """,
+                    """
+                    UPDATE shopping_cart SET
+                        subtotal = COALESCE((SELECT ROUND(SUM(unitPrice * quantity), 2)
+                                             FROM cart_items WHERE cart_items.cartID = shopping_cart.cartID), 0),
+                        itemCount = COALESCE((SELECT SUM(quantity)
+                                              FROM cart_items WHERE cart_items.cartID = shopping_cart.cartID), 0)
+                    """,
+                    """
+                    INSERT INTO cart_genre_totals (cartID, genre, quantity)
+                    SELECT cartID, genre, SUM(quantity) FROM cart_items
+                    WHERE genre IS NOT NULL
+                    GROUP BY cartID, genre
+                    """),
+
+            // Every write to books bumps one catalog-wide version, which the API
+            // hands out as its ETag. A row's own time is COALESCE(updatedAt,
+            // createdAt): inserts leave updatedAt alone so imports write each row once.
+            Migration.sql(6, "Catalog change tracking",
+                    "ALTER TABLE books ADD COLUMN updatedAt DATETIME",
+                    """
+                    CREATE TABLE catalog_version (
+                        id INTEGER PRIMARY KEY CHECK (id = 1),
+                        version INTEGER NOT NULL,
+                        modifiedAt DATETIME NOT NULL
+                    )
+                    """,
+                    """
+                    INSERT INTO catalog_version (id, version, modifiedAt)
+                    SELECT 1, 1, COALESCE(MAX(createdAt), CURRENT_TIMESTAMP) FROM books
+                    """,
+                    """
+                    CREATE TRIGGER books_version_insert AFTER INSERT ON books BEGIN
+                        UPDATE catalog_version SET version = version + 1, modifiedAt = CURRENT_TIMESTAMP WHERE id = 1;
+                    END
+                    """,
+                    """
+                    CREATE TRIGGER books_version_update AFTER UPDATE ON books
+                    WHEN NEW.updatedAt IS OLD.updatedAt BEGIN
+                        UPDATE books SET updatedAt = CURRENT_TIMESTAMP WHERE rowid = NEW.rowid;
+                        UPDATE catalog_version SET version = version + 1, modifiedAt = CURRENT_TIMESTAMP WHERE id = 1;
+                    END
+                    """,
+                    """
+                    CREATE TRIGGER books_version_delete AFTER DELETE ON books BEGIN
+                        UPDATE catalog_version SET version = version + 1, modifiedAt = CURRENT_TIMESTAMP WHERE id = 1;
+                    END
+                    """),
+
+            // totalPrice is what CartService's pricer stores with every item change;
+            // the discounted total the re-pricing job computes gets its own column.
+            // NULL means not priced since the cart last changed.
+            Migration.sql(7, "Separate discounted cart total",
+                    "ALTER TABLE shopping_cart ADD COLUMN discountedTotal REAL")
+    );
+
+    /**
+     * Queries that must be answered through an index; checked with
+     * EXPLAIN QUERY PLAN after migrating.
+     */
+    record PlanCheck(String sql, String index) {}
+
+    static final List<PlanCheck> PLAN_CHECKS = List.of(
+            new PlanCheck("SELECT * FROM cart_items WHERE cartID = ?", "idx_cart_items_cart_isbn"),
+            new PlanCheck("SELECT * FROM cart_items WHERE cartID = ? AND isbn = ?", "idx_cart_items_cart_isbn"),
+            new PlanCheck("SELECT * FROM order_items WHERE orderID = ?", "idx_order_items_order"),
+            new PlanCheck("SELECT * FROM orders WHERE userID = ?", "idx_orders_user"),
+            new PlanCheck("SELECT * FROM notifications WHERE userID = ?", "idx_notifications_user"),
+            new PlanCheck("SELECT * FROM books WHERE author = ?", "idx_books_author"),
+            new PlanCheck("SELECT percentage FROM discounts WHERE discountType = ? AND active = 1",
+                    "idx_discounts_type_active")
+    );
+
+    private final DatabaseManager db;
+    private final List<Migration> migrations;
+
+    public SchemaMigrator(DatabaseManager db) {
+        this(db, MIGRATIONS);
+    }
+
+    SchemaMigrator(DatabaseManager db, List<Migration> migrations) {
+        this.db = db;
+        this.migrations = new ArrayList<>(migrations);
+        this.migrations.sort(Comparator.comparingInt(Migration::version));
+    }
+
+    // ============================================================
+    // MIGRATE
+    // ============================================================
+    /**
+     * Applies every pending migration in version order, stopping at the
+     * first failure (which is rolled back). Returns false on failure.
+     */
+    public boolean migrate() {
+        db.executeUpdate("""
+            CREATE TABLE IF NOT EXISTS schema_migrations (
+                version INTEGER PRIMARY KEY,
+                description TEXT NOT NULL,
+                appliedAt DATETIME DEFAULT CURRENT_TIMESTAMP
+            )
+        """);
+
+        Set<Integer> applied = new HashSet<>(
+                db.query("SELECT version FROM schema_migrations", rs -> rs.getInt(1)));
+
+        for (Migration migration : migrations) {
+            if (applied.contains(migration.version())) continue;
+
+            try {
+                db.inTransaction(conn -> {
+                    migration.step().apply(db, conn);
+                    try (PreparedStatement ps = conn.prepareStatement(
+                            "INSERT INTO schema_migrations (version, description) VALUES (?, ?)")) {
+                        ps.setInt(1, migration.version());
+                        ps.setString(2, migration.description());
+                        ps.executeUpdate();
+                    }
+                    return null;
+                });
+                System.out.println("✅ Migration V" + migration.version() + ": " + migration.description());
+            } catch (SQLException | RuntimeException e) {
+                System.err.println("❌ Migration V" + migration.version() + " failed: " + e.getMessage());
+                return false;
+            }
+        }
+
+        for (String problem : verifyIndexes()) {
+            System.err.println("⚠️ " + problem);
+        }
+        return true;
+    }
+
+    public int currentVersion() {
+        Integer version = db.queryOne("SELECT MAX(version) FROM schema_migrations", rs -> rs.getInt(1));
+        return version != null ? version : 0;
+    }
+
+    // ============================================================
+    // VERIFY
+    // ============================================================
+    /**
+     * Problems found by EXPLAIN QUERY PLAN; empty when every hot query
+     * uses its index.
+     */
+    public List<String> verifyIndexes() {
+        List<String> problems = new ArrayList<>();
+
+        // EXPLAIN doesn't revalidate the schema, so a pooled read connection can
+        // still plan against indexes a migration just dropped; the writer can't
+        try {
+            db.inTransaction(conn -> {
+                for (PlanCheck check : PLAN_CHECKS) {
+                    Object[] params = new Object[(int) check.sql().chars().filter(c -> c == '?').count()];
+                    List<String> plan = db.query("EXPLAIN QUERY PLAN " + check.sql(),
+                            rs -> rs.getString("detail"), params);
+
+                    boolean usesIndex = plan.stream().anyMatch(step -> step.contains(check.index()));
+                    if (!usesIndex) {
+                        problems.add("Query does not use " + check.index() + ": " + check.sql() + " -> " + plan);
+                    }
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            problems.add("Index check failed: " + e.getMessage());
+        }
+        return problems;
+    }
+
+    // ============================================================
+    // MIGRATION STEPS
+    // ============================================================
+    // Migration V1 as it shipped: the original DatabaseSetup schema, with
+    // IF NOT EXISTS throughout so it adopts databases created before migrations
+    private static final List<String> BASELINE_SCHEMA = List.of(
+            """
+            CREATE TABLE IF NOT EXISTS users (
+                userID INTEGER PRIMARY KEY AUTOINCREMENT,
+                email TEXT UNIQUE,
+                password TEXT,
+                role TEXT CHECK(role IN ('ADMIN','GUEST','MEMBER')) NOT NULL,
+                memberType TEXT CHECK(memberType IN ('STANDARD','PREMIUM')),
+                birthDate DATE,
+                address TEXT
+            )
+            """,
+
+            """
+            CREATE TABLE IF NOT EXISTS books (
+                isbn TEXT PRIMARY KEY,
+                coverImageUrl TEXT,
+                title TEXT NOT NULL,
+                author TEXT NOT NULL,
+                publisher TEXT,
+                publicationYear INTEGER,
+                language TEXT,
+                pageCount INTEGER,
+                type TEXT,
+                genre TEXT NOT NULL,
+                status TEXT DEFAULT 'Available',
+                isPromo INTEGER DEFAULT 0,
+                description TEXT,
+                price REAL NOT NULL,
+                stock INTEGER NOT NULL,
+                publishDate DATE,
+                createdAt DATETIME DEFAULT CURRENT_TIMESTAMP
+            )
+            """,
+
+            "CREATE INDEX IF NOT EXISTS idx_books_created ON books(createdAt, isbn)",
+
+            """
+            CREATE VIRTUAL TABLE IF NOT EXISTS books_fts USING fts5(
+                title,
+                author,
+                description,
+                content = 'books',
+                content_rowid = 'rowid',
+                tokenize = 'unicode61 remove_diacritics 2',
+                prefix = '2 3'
+            )
+            """,
+
+            """
+            CREATE TRIGGER IF NOT EXISTS books_fts_insert AFTER INSERT ON books BEGIN
+                INSERT INTO books_fts (rowid, title, author, description)
+                VALUES (new.rowid, new.title, new.author, new.description);
+            END
+            """,
+
+            """
+            CREATE TRIGGER IF NOT EXISTS books_fts_delete AFTER DELETE ON books BEGIN
+                INSERT INTO books_fts (books_fts, rowid, title, author, description)
+                VALUES ('delete', old.rowid, old.title, old.author, old.description);
+            END
+            """,
+
+            """
+            CREATE TRIGGER IF NOT EXISTS books_fts_update AFTER UPDATE OF title, author, description ON books BEGIN
+                INSERT INTO books_fts (books_fts, rowid, title, author, description)
+                VALUES ('delete', old.rowid, old.title, old.author, old.description);
+                INSERT INTO books_fts (rowid, title, author, description)
+                VALUES (new.rowid, new.title, new.author, new.description);
+            END
+            """,
+
+            """
+            CREATE TABLE IF NOT EXISTS shopping_cart (
+                cartID INTEGER PRIMARY KEY AUTOINCREMENT,
+                userID INTEGER UNIQUE,
+                totalPrice REAL DEFAULT 0,
+                FOREIGN KEY (userID) REFERENCES users(userID)
+            )
+            """,
+
+            """
+            CREATE TABLE IF NOT EXISTS cart_items (
+                cartItemID INTEGER PRIMARY KEY AUTOINCREMENT,
+                cartID INTEGER NOT NULL,
+                isbn TEXT NOT NULL,
+                quantity INTEGER NOT NULL,
+                FOREIGN KEY (cartID) REFERENCES shopping_cart(cartID),
+                FOREIGN KEY (isbn) REFERENCES books(isbn)
+            )
+            """,
+
+            """
+            CREATE TABLE IF NOT EXISTS orders (
+                orderID INTEGER PRIMARY KEY AUTOINCREMENT,
+                userID INTEGER NOT NULL,
+                status TEXT CHECK(
+                    status IN ('PLACED','SHIPPED','OUT_FOR_DELIVERY','DELIVERED')
+                ) NOT NULL DEFAULT 'PLACED',
+                totalPrice REAL NOT NULL,
+                orderDate DATETIME DEFAULT CURRENT_TIMESTAMP,
+                deliveryAddress TEXT NOT NULL,
+                FOREIGN KEY (userID) REFERENCES users(userID)
+            )
+            """,
+
+            """
+            CREATE TABLE IF NOT EXISTS order_items (
+                orderItemID INTEGER PRIMARY KEY AUTOINCREMENT,
+                orderID INTEGER NOT NULL,
+                isbn TEXT NOT NULL,
+                quantity INTEGER NOT NULL,
+                price REAL NOT NULL,
+                FOREIGN KEY (orderID) REFERENCES orders(orderID),
+                FOREIGN KEY (isbn) REFERENCES books(isbn)
+            )
+            """,
+
+            """
+            CREATE TABLE IF NOT EXISTS payments (
+                paymentID INTEGER PRIMARY KEY AUTOINCREMENT,
+                orderID INTEGER UNIQUE NOT NULL,
+                method TEXT CHECK(method = 'COD') NOT NULL,
+                amount REAL NOT NULL,
+                paymentDate DATETIME,
+                FOREIGN KEY (orderID) REFERENCES orders(orderID)
+            )
+            """,
+
+            """
+            CREATE TABLE IF NOT EXISTS discounts (
+                discountID INTEGER PRIMARY KEY AUTOINCREMENT,
+                discountType TEXT CHECK(
+                    discountType IN ('PREMIUM_MEMBER','STUDENT','BUNDLE','BOOK_GENRE')
+                ) NOT NULL,
+                targetValue TEXT,
+                percentage REAL NOT NULL,
+                active INTEGER DEFAULT 1
+            )
+            """,
+
+            """
+            CREATE TABLE IF NOT EXISTS notifications (
+                notificationID INTEGER PRIMARY KEY AUTOINCREMENT,
+                userID INTEGER NOT NULL,
+                orderID INTEGER NOT NULL,
+                message TEXT NOT NULL,
+                status TEXT CHECK(status IN ('UNREAD','READ')) DEFAULT 'UNREAD',
+                createdAt DATETIME DEFAULT CURRENT_TIMESTAMP,
+                FOREIGN KEY (userID) REFERENCES users(userID),
+                FOREIGN KEY (orderID) REFERENCES orders(orderID)
+            )
+            """,
+
+            """
+            CREATE TABLE IF NOT EXISTS admin_log (
+                logID INTEGER PRIMARY KEY AUTOINCREMENT,
+                adminID INTEGER NOT NULL,
+                action TEXT NOT NULL,
+                timestamp DATETIME DEFAULT CURRENT_TIMESTAMP,
+                FOREIGN KEY (adminID) REFERENCES users(userID)
+            )
+            """
+    );
+
+    private static void createBaseline(DatabaseManager db, Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            boolean searchIndexExists;
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'books_fts'")) {
+                searchIndexExists = rs.next();
+            }
+
+            for (String sql : BASELINE_SCHEMA) {
+                stmt.executeUpdate(sql);
+            }
+
+            if (!searchIndexExists) {
+                // Title matches outrank author matches, which outrank description matches
+                stmt.executeUpdate("INSERT INTO books_fts (books_fts, rank) VALUES ('rank', 'bm25(10.0, 5.0, 1.0)')");
+                // Index the rows that were there before the triggers
+                stmt.executeUpdate("INSERT INTO books_fts (books_fts) VALUES ('rebuild')");
+            }
+        }
+    }
+
+    private static void addMissingBookColumns(DatabaseManager db, Connection conn) throws SQLException {
+        Map<String, String> columns = new LinkedHashMap<>();
+        columns.put("coverImageUrl", "TEXT");
+        columns.put("publisher", "TEXT");
+        columns.put("publicationYear", "INTEGER");
+        columns.put("language", "TEXT");
+        columns.put("pageCount", "INTEGER");
+        columns.put("type", "TEXT");
+        columns.put("status", "TEXT DEFAULT 'Available'");
+        columns.put("isPromo", "INTEGER DEFAULT 0");
+
+        Set<String> existing = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(books)")) {
+            while (rs.next()) {
+                existing.add(rs.getString("name"));
+            }
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            for (Map.Entry<String, String> column : columns.entrySet()) {
+                if (!existing.contains(column.getKey())) {
+                    stmt.executeUpdate("ALTER TABLE books ADD COLUMN " + column.getKey() + " " + column.getValue());
+                }
+            }
+        }
+    }
+}
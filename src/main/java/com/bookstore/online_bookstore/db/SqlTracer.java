@@ -0,0 +1,204 @@
+package com.bookstore.online_bookstore.db;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SqlTracer
+ * Per-statement latency histograms and row counts for everything run
+ * through DatabaseManager, plus a bounded log of slow statements with
+ * their query plans. Recording is lock-free; snapshots are approximate
+ * while statements are running.
+ */
+public class SqlTracer {
+
+    // Histogram bucket upper bounds; the last bucket is everything slower
+    private static final long[] BUCKET_BOUNDS_MICROS = {
+            100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000,
+            50_000, 100_000, 250_000, 500_000, 1_000_000
+    };
+    private static final int MAX_STATEMENTS = 500;
+    private static final int MAX_SLOW_QUERIES = 100;
+    private static final String OTHER = "<other statements>";
+
+    private final Map<String, Entry> statements = new ConcurrentHashMap<>();
+    private final Deque<SlowQuery> slowQueries = new ArrayDeque<>();
+    private volatile long slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final class Entry {
+        final LongAdder calls = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+        final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS_MICROS.length + 1);
+    }
+
+    // ============================================================
+    // RECORDING
+    // ============================================================
+    public void record(String sql, long nanos, long rows, boolean failed) {
+        Entry entry = statements.get(sql);
+        if (entry == null) {
+            // Cap distinct statements so dynamically built SQL can't grow this forever
+            String key = statements.size() < MAX_STATEMENTS ? sql : OTHER;
+            entry = statements.computeIfAbsent(key, k -> new Entry());
+        }
+
+        entry.calls.increment();
+        entry.rows.add(rows);
+        entry.totalNanos.add(nanos);
+        entry.maxNanos.accumulateAndGet(nanos, Math::max);
+        entry.buckets.incrementAndGet(bucketOf(nanos));
+        if (failed) entry.errors.increment();
+    }
+
+    public boolean isSlow(long nanos) {
+        return nanos >= slowThresholdNanos;
+    }
+
+    public void recordSlow(String sql, long nanos, long rows, List<String> plan) {
+        SlowQuery slow = new SlowQuery(normalize(sql), TimeUnit.NANOSECONDS.toMicros(nanos) / 1000.0,
+                rows, plan, System.currentTimeMillis());
+        synchronized (slowQueries) {
+            if (slowQueries.size() >= MAX_SLOW_QUERIES) {
+                slowQueries.removeFirst();
+            }
+            slowQueries.addLast(slow);
+        }
+    }
+
+    public void setSlowThresholdMillis(long millis) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    public long getSlowThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos);
+    }
+
+    public void reset() {
+        statements.clear();
+        synchronized (slowQueries) {
+            slowQueries.clear();
+        }
+    }
+
+    private static int bucketOf(long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        for (int i = 0; i < BUCKET_BOUNDS_MICROS.length; i++) {
+            if (micros < BUCKET_BOUNDS_MICROS[i]) return i;
+        }
+        return BUCKET_BOUNDS_MICROS.length;
+    }
+
+    static String normalize(String sql) {
+        return sql.strip().replaceAll("\\s+", " ");
+    }
+
+    // ============================================================
+    // SNAPSHOTS
+    // ============================================================
+    /**
+     * One entry per distinct statement, most total time first.
+     */
+    public List<StatementStats> getStatementStats() {
+        // Statements that differ only in whitespace are reported together
+        Map<String, long[]> merged = new HashMap<>();
+        for (Map.Entry<String, Entry> e : statements.entrySet()) {
+            Entry entry = e.getValue();
+            long[] totals = merged.computeIfAbsent(normalize(e.getKey()),
+                    k -> new long[5 + BUCKET_BOUNDS_MICROS.length + 1]);
+            totals[0] += entry.calls.sum();
+            totals[1] += entry.errors.sum();
+            totals[2] += entry.rows.sum();
+            totals[3] += entry.totalNanos.sum();
+            totals[4] = Math.max(totals[4], entry.maxNanos.get());
+            for (int i = 0; i < entry.buckets.length(); i++) {
+                totals[5 + i] += entry.buckets.get(i);
+            }
+        }
+
+        List<StatementStats> result = new ArrayList<>();
+        for (Map.Entry<String, long[]> e : merged.entrySet()) {
+            result.add(toStats(e.getKey(), e.getValue()));
+        }
+        result.sort(Comparator.comparingDouble(StatementStats::totalMillis).reversed());
+        return result;
+    }
+
+    public List<SlowQuery> getSlowQueries() {
+        synchronized (slowQueries) {
+            return new ArrayList<>(slowQueries);
+        }
+    }
+
+    private static StatementStats toStats(String sql, long[] totals) {
+        long calls = totals[0];
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        long[] buckets = new long[BUCKET_BOUNDS_MICROS.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = totals[5 + i];
+            String label = i < BUCKET_BOUNDS_MICROS.length
+                    ? "<" + BUCKET_BOUNDS_MICROS[i] + "us"
+                    : ">=" + BUCKET_BOUNDS_MICROS[BUCKET_BOUNDS_MICROS.length - 1] + "us";
+            histogram.put(label, buckets[i]);
+        }
+
+        return new StatementStats(
+                sql,
+                calls,
+                totals[1],
+                totals[2],
+                totals[3] / 1_000_000.0,
+                calls > 0 ? totals[3] / 1000.0 / calls : 0.0,
+                totals[4] / 1000.0,
+                percentileMicros(buckets, calls, 0.50),
+                percentileMicros(buckets, calls, 0.95),
+                percentileMicros(buckets, calls, 0.99),
+                histogram);
+    }
+
+    // Upper bound of the bucket holding the percentile; -1 means "slower than the last bound"
+    private static long percentileMicros(long[] buckets, long calls, double percentile) {
+        if (calls == 0) return 0;
+        long target = (long) Math.ceil(calls * percentile);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= target) {
+                return i < BUCKET_BOUNDS_MICROS.length ? BUCKET_BOUNDS_MICROS[i] : -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Percentiles are histogram bucket bounds, so they are upper estimates.
+     */
+    public record StatementStats(
+            String sql,
+            long calls,
+            long errors,
+            long rows,
+            double totalMillis,
+            double meanMicros,
+            double maxMicros,
+            long p50Micros,
+            long p95Micros,
+            long p99Micros,
+            Map<String, Long> histogram
+    ) {}
+
+    public record SlowQuery(String sql, double millis, long rows, List<String> plan, long timestamp) {}
+}
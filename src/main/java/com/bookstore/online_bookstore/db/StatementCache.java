@@ -0,0 +1,93 @@
+package com.bookstore.online_bookstore.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * StatementCache
+ * LRU cache of prepared statements for one connection, keyed by SQL text.
+ * Not thread-safe: a connection is only ever used by one thread at a time.
+ */
+public class StatementCache {
+
+    private final int maxSize;
+    private final LinkedHashMap<String, PreparedStatement> statements;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public StatementCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1");
+        }
+        this.maxSize = maxSize;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public PreparedStatement prepare(Connection conn, String sql) throws SQLException {
+        PreparedStatement ps = statements.get(sql);
+        if (ps != null && !ps.isClosed()) {
+            hits++;
+            return ps;
+        }
+
+        misses++;
+        ps = conn.prepareStatement(sql);
+        statements.put(sql, ps);
+        evictOverflow();
+        return ps;
+    }
+
+    /**
+     * Drops and closes the statement for sql, e.g. after it failed.
+     */
+    public void evict(String sql) {
+        PreparedStatement ps = statements.remove(sql);
+        if (ps != null) {
+            closeQuietly(ps);
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, PreparedStatement>> it = statements.entrySet().iterator();
+        while (statements.size() > maxSize && it.hasNext()) {
+            closeQuietly(it.next().getValue());
+            it.remove();
+            evictions++;
+        }
+    }
+
+    public void close() {
+        for (PreparedStatement ps : statements.values()) {
+            closeQuietly(ps);
+        }
+        statements.clear();
+    }
+
+    private static void closeQuietly(PreparedStatement ps) {
+        try {
+            ps.close();
+        } catch (SQLException ignored) {}
+    }
+
+    // ============================================================
+    // METRICS
+    // ============================================================
+    // Read without locking from other threads, so only approximate
+    public Stats getStats() {
+        return new Stats(statements.size(), hits, misses, evictions);
+    }
+
+    public record Stats(int size, long hits, long misses, long evictions) {
+
+        public Stats plus(Stats other) {
+            return new Stats(size + other.size, hits + other.hits,
+                    misses + other.misses, evictions + other.evictions);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.bookstore.online_bookstore.importer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.bookstore.online_bookstore.model.Book;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * BookRecordParser
+ * Turns one feed record into a validated Book. Field names follow the
+ * books table columns and are matched case-insensitively.
+ * Rejected records throw IllegalArgumentException with the reason.
+ *
+ * Stateless after construction, so one parser can be shared by workers.
+ */
+public class BookRecordParser {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final FeedFormat format;
+    private final String[] header;
+
+    private BookRecordParser(FeedFormat format, String[] header) {
+        this.format = format;
+        this.header = header;
+    }
+
+    public static BookRecordParser csv(String headerLine) {
+        List<String> columns = splitCsv(headerLine);
+        String[] header = new String[columns.size()];
+        for (int i = 0; i < header.length; i++) {
+            header[i] = columns.get(i).trim().toLowerCase(Locale.ROOT);
+        }
+        return new BookRecordParser(FeedFormat.CSV, header);
+    }
+
+    public static BookRecordParser jsonl() {
+        return new BookRecordParser(FeedFormat.JSONL, null);
+    }
+
+    public Book parse(String record) {
+        Map<String, String> fields = format == FeedFormat.CSV ? csvFields(record) : jsonFields(record);
+        return toBook(fields);
+    }
+
+    // ============================================================
+    // FIELD EXTRACTION
+    // ============================================================
+    private Map<String, String> csvFields(String record) {
+        List<String> values = splitCsv(record);
+        if (values.size() != header.length) {
+            throw new IllegalArgumentException("expected " + header.length + " columns, found " + values.size());
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            fields.put(header[i], values.get(i));
+        }
+        return fields;
+    }
+
+    private Map<String, String> jsonFields(String record) {
+        JsonNode node;
+        try {
+            node = JSON.readTree(record);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("malformed JSON");
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("expected a JSON object");
+        }
+
+        Map<String, String> fields = new HashMap<>();
+        for (Map.Entry<String, JsonNode> field : node.properties()) {
+            JsonNode value = field.getValue();
+            fields.put(field.getKey().toLowerCase(Locale.ROOT), value.isNull() ? null : value.asString());
+        }
+        return fields;
+    }
+
+    /**
+     * RFC 4180 split: quoted fields may hold commas, newlines and "" escapes.
+     */
+    static List<String> splitCsv(String record) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    /**
+     * True while a CSV record still has an unterminated quoted field,
+     * meaning the next physical line belongs to the same record.
+     */
+    static boolean hasOpenQuote(String partialRecord) {
+        int quotes = 0;
+        for (int i = 0; i < partialRecord.length(); i++) {
+            if (partialRecord.charAt(i) == '"') quotes++;
+        }
+        return quotes % 2 != 0;
+    }
+
+    // ============================================================
+    // VALIDATION
+    // ============================================================
+    private static Book toBook(Map<String, String> fields) {
+        String isbn = normalizeIsbn(required(fields, "isbn"));
+        String title = required(fields, "title");
+        String author = required(fields, "author");
+        String genre = required(fields, "genre");
+
+        double price = parseDouble(required(fields, "price"), "price");
+        if (price < 0) throw new IllegalArgumentException("price must not be negative");
+
+        int stock = optionalInt(fields, "stock");
+        if (stock < 0) throw new IllegalArgumentException("stock must not be negative");
+
+        Book book = new Book(
+                isbn,
+                optional(fields, "coverimageurl"),
+                title,
+                author,
+                optional(fields, "publisher"),
+                optionalInt(fields, "publicationyear"),
+                optional(fields, "language"),
+                optionalInt(fields, "pagecount"),
+                optional(fields, "type"),
+                genre);
+        book.setPrice(price);
+        book.setStock(stock);
+        book.setDescription(optional(fields, "description"));
+
+        String status = optional(fields, "status");
+        if (status != null) book.setStatus(status);
+
+        String promo = optional(fields, "ispromo");
+        if (promo != null) book.setPromo(promo.equals("1") || promo.equalsIgnoreCase("true"));
+
+        return book;
+    }
+
+    private static String required(Map<String, String> fields, String name) {
+        String value = optional(fields, name);
+        if (value == null) throw new IllegalArgumentException("missing " + name);
+        return value;
+    }
+
+    private static String optional(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        if (value == null) return null;
+        value = value.trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static int optionalInt(Map<String, String> fields, String name) {
+        String value = optional(fields, name);
+        if (value == null) return 0;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " is not a whole number: " + value);
+        }
+    }
+
+    private static double parseDouble(String value, String name) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " is not a number: " + value);
+        }
+    }
+
+    /**
+     * Strips hyphens/spaces and checks the ISBN-10 or ISBN-13 check digit.
+     */
+    static String normalizeIsbn(String raw) {
+        String isbn = raw.replace("-", "").replace(" ", "").toUpperCase(Locale.ROOT);
+
+        if (isbn.length() == 13 && isbn.chars().allMatch(Character::isDigit)) {
+            int sum = 0;
+            for (int i = 0; i < 13; i++) {
+                sum += (isbn.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+            }
+            if (sum % 10 == 0) return isbn;
+        } else if (isbn.length() == 10 && isbn.substring(0, 9).chars().allMatch(Character::isDigit)) {
+            char check = isbn.charAt(9);
+            if (Character.isDigit(check) || check == 'X') {
+                int sum = 0;
+                for (int i = 0; i < 10; i++) {
+                    int digit = (i == 9 && check == 'X') ? 10 : isbn.charAt(i) - '0';
+                    sum += digit * (10 - i);
+                }
+                if (sum % 11 == 0) return isbn;
+            }
+        }
+        throw new IllegalArgumentException("invalid ISBN: " + raw);
+    }
+}
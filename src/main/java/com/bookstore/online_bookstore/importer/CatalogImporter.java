@@ -0,0 +1,302 @@
+package com.bookstore.online_bookstore.importer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.bookstore.online_bookstore.db.BatchWriter;
+import com.bookstore.online_bookstore.db.DatabaseManager;
+import com.bookstore.online_bookstore.model.Book;
+
+/**
+ * CatalogImporter
+ * Streams a CSV/JSONL publisher feed into the books table.
+ *
+ * The calling thread reads records in chunks and hands each chunk to a
+ * worker pool for parsing and validation. Parsed chunks are written back
+ * in file order, one transaction per chunk, with the resume checkpoint
+ * saved in that same transaction. Caches and the in-memory catalog only
+ * pick a chunk up once it has committed. At most two chunks per worker
+ * are held in memory, whatever the size of the file.
+ */
+public class CatalogImporter {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final long PROGRESS_INTERVAL_NANOS = 5_000_000_000L;
+
+    private final DatabaseManager db;
+
+    public CatalogImporter(DatabaseManager db) {
+        this.db = db;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: CatalogImporter <feed.csv|feed.jsonl> [--dry-run] [--restart] "
+                    + "[--workers=N] [--chunk=N]");
+            return;
+        }
+
+        ImportOptions options = ImportOptions.defaults();
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--dry-run")) options = options.withDryRun(true);
+            else if (arg.equals("--restart")) options = options.withResume(false);
+            else if (arg.startsWith("--workers=")) options = options.withWorkers(Integer.parseInt(arg.substring(10)));
+            else if (arg.startsWith("--chunk=")) options = options.withChunkRows(Integer.parseInt(arg.substring(8)));
+            else throw new IllegalArgumentException("Unknown option: " + arg);
+        }
+
+        DatabaseManager db = DatabaseManager.getInstance();
+        if (!db.connect()) {
+            System.err.println("❌ Database connection failed!");
+            return;
+        }
+
+        Path feed = Path.of(args[0]);
+        ImportReport report = new CatalogImporter(db).importFeed(feed, FeedFormat.fromFileName(feed.toString()), options);
+
+        System.out.printf("%n%s %d rows read, %d imported, %d rejected in %ds (%.0f rows/sec)%n",
+                report.completed() ? "✅" : "❌",
+                report.rowsRead(), report.rowsImported(), report.rowsRejected(),
+                report.elapsed().toSeconds(), report.rowsPerSecond());
+        report.errors().forEach(error -> System.out.println("   " + error));
+
+        db.disconnect();
+    }
+
+    // ============================================================
+    // IMPORT
+    // ============================================================
+    public ImportReport importFeed(Path file, FeedFormat format, ImportOptions options) throws IOException {
+        Run run = new Run(file, options);
+
+        if (!options.dryRun()) {
+            ImportCheckpoint.ensureTable(db);
+            ImportCheckpoint checkpoint = ImportCheckpoint.load(db, run.feedKey);
+
+            if (checkpoint != null && options.resume() && checkpoint.matches(run.fileSize, run.lastModified)) {
+                run.startOffset = checkpoint.byteOffset();
+                run.startRow = checkpoint.rowsDone();
+                System.out.println("↩️  Resuming " + file.getFileName() + " at row " + run.startRow);
+            } else if (checkpoint != null) {
+                System.out.println("🔄 Ignoring old checkpoint for " + file.getFileName() + ", starting over");
+            }
+        }
+
+        ExecutorService workers = Executors.newFixedThreadPool(options.workers(), daemonThreads());
+        try (FeedReader reader = new FeedReader(file)) {
+            BookRecordParser parser;
+            if (format == FeedFormat.CSV) {
+                String header = reader.readLine();
+                if (header == null) return run.report(true);
+                parser = BookRecordParser.csv(header);
+            } else {
+                parser = BookRecordParser.jsonl();
+            }
+            if (run.startOffset > reader.offset()) {
+                reader.seek(run.startOffset);
+            }
+
+            Deque<Future<ParsedChunk>> inFlight = new ArrayDeque<>();
+            int maxInFlight = options.workers() * 2;
+            long row = run.startRow;
+            List<String> records = new ArrayList<>(options.chunkRows());
+
+            String record;
+            while ((record = nextRecord(reader, format)) != null) {
+                if (record.isBlank()) continue;
+                records.add(record);
+
+                if (records.size() == options.chunkRows()) {
+                    inFlight.add(submit(workers, parser, records, row, reader.offset()));
+                    row += records.size();
+                    records = new ArrayList<>(options.chunkRows());
+
+                    if (inFlight.size() >= maxInFlight && !write(run, await(inFlight.removeFirst()))) {
+                        return run.report(false);
+                    }
+                }
+            }
+            if (!records.isEmpty()) {
+                inFlight.add(submit(workers, parser, records, row, reader.offset()));
+            }
+            while (!inFlight.isEmpty()) {
+                if (!write(run, await(inFlight.removeFirst()))) {
+                    return run.report(false);
+                }
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        if (!options.dryRun()) {
+            ImportCheckpoint.clear(db, run.feedKey);
+        }
+        return run.report(true);
+    }
+
+    private static String nextRecord(FeedReader reader, FeedFormat format) throws IOException {
+        String record = reader.readLine();
+        if (record == null || format != FeedFormat.CSV) return record;
+
+        // A quoted CSV field may span several physical lines
+        if (!BookRecordParser.hasOpenQuote(record)) return record;
+
+        StringBuilder joined = new StringBuilder(record);
+        boolean open = true;
+        String next;
+        while (open && (next = reader.readLine()) != null) {
+            joined.append('\n').append(next);
+            open ^= BookRecordParser.hasOpenQuote(next);
+        }
+        return joined.toString();
+    }
+
+    // ============================================================
+    // PARSING (worker threads)
+    // ============================================================
+    private Future<ParsedChunk> submit(ExecutorService workers, BookRecordParser parser,
+                                       List<String> records, long firstRow, long endOffset) {
+        return workers.submit(() -> {
+            List<Book> books = new ArrayList<>(records.size());
+            long[] rows = new long[records.size()];
+            List<String> errors = new ArrayList<>();
+            int rejected = 0;
+
+            for (int i = 0; i < records.size(); i++) {
+                try {
+                    rows[books.size()] = firstRow + i + 1;
+                    books.add(parser.parse(records.get(i)));
+                } catch (IllegalArgumentException e) {
+                    rejected++;
+                    if (errors.size() < MAX_REPORTED_ERRORS) {
+                        errors.add("row " + (firstRow + i + 1) + ": " + e.getMessage());
+                    }
+                }
+            }
+            return new ParsedChunk(books, rows, records.size(), rejected, errors, firstRow + records.size(), endOffset);
+        });
+    }
+
+    private static ParsedChunk await(Future<ParsedChunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Parsing failed", e.getCause());
+        }
+    }
+
+    private record ParsedChunk(
+            List<Book> books,
+            long[] rowNumbers,
+            int rowsRead,
+            int rejected,
+            List<String> errors,
+            long endRow,
+            long endOffset
+    ) {}
+
+    // ============================================================
+    // WRITING (calling thread, file order)
+    // ============================================================
+    private boolean write(Run run, ParsedChunk chunk) {
+        long imported = chunk.books().size();
+        List<String> errors = new ArrayList<>(chunk.errors());
+
+        if (!run.options.dryRun()) {
+            try {
+                BatchWriter.Result result = db.inTransaction(conn -> {
+                    BatchWriter.Result written = Book.upsertBooks(chunk.books());
+                    ImportCheckpoint.save(conn, run.feedKey, new ImportCheckpoint(
+                            chunk.endOffset(), chunk.endRow(), run.fileSize, run.lastModified));
+                    return written;
+                });
+                imported = result.rowsWritten();
+                for (BatchWriter.RowError error : result.errors()) {
+                    errors.add("row " + chunk.rowNumbers()[(int) error.rowIndex()] + ": " + error.message());
+                }
+            } catch (SQLException e) {
+                System.err.println("❌ Import stopped at row " + (chunk.endRow() - chunk.rowsRead())
+                        + ": " + e.getMessage());
+                return false;
+            }
+        }
+
+        run.record(chunk.rowsRead(), imported, chunk.rowsRead() - imported, errors);
+        return true;
+    }
+
+    // ============================================================
+    // RUN STATE & PROGRESS
+    // ============================================================
+    private static final class Run {
+        final ImportOptions options;
+        final String feedKey;
+        final long fileSize;
+        final long lastModified;
+        final long startNanos = System.nanoTime();
+
+        long startOffset;
+        long startRow;
+        long rowsRead;
+        long rowsImported;
+        long rowsRejected;
+        long lastProgressNanos = startNanos;
+        final List<String> errors = new ArrayList<>();
+
+        Run(Path file, ImportOptions options) throws IOException {
+            this.options = options;
+            this.feedKey = file.toAbsolutePath().normalize().toString();
+            this.fileSize = Files.size(file);
+            this.lastModified = Files.getLastModifiedTime(file).toMillis();
+        }
+
+        void record(long read, long imported, long rejected, List<String> chunkErrors) {
+            rowsRead += read;
+            rowsImported += imported;
+            rowsRejected += rejected;
+            for (String error : chunkErrors) {
+                if (errors.size() >= MAX_REPORTED_ERRORS) break;
+                errors.add(error);
+            }
+
+            long now = System.nanoTime();
+            if (now - lastProgressNanos >= PROGRESS_INTERVAL_NANOS) {
+                lastProgressNanos = now;
+                System.out.printf("📦 %d rows (%d imported, %d rejected), %.0f rows/sec%n",
+                        startRow + rowsRead, rowsImported, rowsRejected, report(false).rowsPerSecond());
+            }
+        }
+
+        ImportReport report(boolean completed) {
+            return new ImportReport(rowsRead, rowsImported, rowsRejected, startRow,
+                    Duration.ofNanos(System.nanoTime() - startNanos),
+                    options.dryRun(), completed, List.copyOf(errors));
+        }
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, "catalog-import-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,19 @@
+package com.bookstore.online_bookstore.importer;
+
+import java.util.Locale;
+
+/**
+ * FeedFormat
+ * Publisher feed layouts the importer understands
+ */
+public enum FeedFormat {
+    CSV,
+    JSONL;
+
+    public static FeedFormat fromFileName(String fileName) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) return CSV;
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) return JSONL;
+        throw new IllegalArgumentException("Unknown feed format: " + fileName);
+    }
+}
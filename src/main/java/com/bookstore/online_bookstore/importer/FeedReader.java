@@ -0,0 +1,111 @@
+package com.bookstore.online_bookstore.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * FeedReader
+ * Reads a feed line by line straight off a FileChannel with a fixed-size
+ * buffer, tracking the byte offset after each line so an import can be
+ * resumed by seeking back to it.
+ */
+public class FeedReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int MAX_LINE_BYTES = 16 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private long bufferStart;
+
+    private byte[] line = new byte[8192];
+    private int lineLength;
+
+    public FeedReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        buffer.limit(0);
+    }
+
+    /**
+     * Next line without its terminator, or null at end of file.
+     */
+    public String readLine() throws IOException {
+        boolean atFileStart = offset() == 0;
+        lineLength = 0;
+        boolean sawData = false;
+
+        while (true) {
+            if (!buffer.hasRemaining() && !fill()) {
+                if (!sawData) return null;
+                break;
+            }
+            sawData = true;
+
+            byte[] bytes = buffer.array();
+            int start = buffer.position();
+            int end = buffer.limit();
+            int newline = start;
+            while (newline < end && bytes[newline] != '\n') newline++;
+
+            append(bytes, start, newline - start);
+            if (newline < end) {
+                buffer.position(newline + 1);
+                break;
+            }
+            buffer.position(end);
+        }
+
+        int from = 0;
+        int len = lineLength;
+        if (atFileStart && len >= 3
+                && line[0] == (byte) 0xEF && line[1] == (byte) 0xBB && line[2] == (byte) 0xBF) {
+            from = 3;
+            len -= 3;
+        }
+        if (len > 0 && line[from + len - 1] == '\r') len--;
+        return new String(line, from, len, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Byte offset just past the last line returned.
+     */
+    public long offset() {
+        return bufferStart + buffer.position();
+    }
+
+    public void seek(long offset) throws IOException {
+        channel.position(offset);
+        bufferStart = offset;
+        buffer.clear().limit(0);
+    }
+
+    private boolean fill() throws IOException {
+        bufferStart = channel.position();
+        buffer.clear();
+        int read = channel.read(buffer);
+        buffer.flip();
+        return read > 0;
+    }
+
+    private void append(byte[] bytes, int from, int len) throws IOException {
+        if (lineLength + len > line.length) {
+            if (lineLength + len > MAX_LINE_BYTES) {
+                throw new IOException("Line at byte " + offset() + " is longer than " + MAX_LINE_BYTES + " bytes");
+            }
+            line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + len));
+        }
+        System.arraycopy(bytes, from, line, lineLength, len);
+        lineLength += len;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,68 @@
+package com.bookstore.online_bookstore.importer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import com.bookstore.online_bookstore.db.DatabaseManager;
+
+/**
+ * ImportCheckpoint
+ * Progress of an import, saved in the same transaction as each chunk so
+ * a resumed run never skips or double-counts a committed chunk. The file
+ * size and modification time detect a feed replaced between runs.
+ */
+public record ImportCheckpoint(long byteOffset, long rowsDone, long fileSize, long lastModified) {
+
+    public boolean matches(long fileSize, long lastModified) {
+        return this.fileSize == fileSize && this.lastModified == lastModified;
+    }
+
+    public static void ensureTable(DatabaseManager db) {
+        db.executeUpdate("""
+            CREATE TABLE IF NOT EXISTS import_checkpoints (
+                feed TEXT PRIMARY KEY,
+                byteOffset INTEGER NOT NULL,
+                rowsDone INTEGER NOT NULL,
+                fileSize INTEGER NOT NULL,
+                lastModified INTEGER NOT NULL,
+                updatedAt DATETIME DEFAULT CURRENT_TIMESTAMP
+            )
+        """);
+    }
+
+    public static ImportCheckpoint load(DatabaseManager db, String feed) {
+        return db.queryOne(
+                "SELECT byteOffset, rowsDone, fileSize, lastModified FROM import_checkpoints WHERE feed = ?",
+                rs -> new ImportCheckpoint(
+                        rs.getLong("byteOffset"),
+                        rs.getLong("rowsDone"),
+                        rs.getLong("fileSize"),
+                        rs.getLong("lastModified")),
+                feed);
+    }
+
+    public static void save(Connection conn, String feed, ImportCheckpoint checkpoint) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("""
+            INSERT INTO import_checkpoints (feed, byteOffset, rowsDone, fileSize, lastModified)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT(feed) DO UPDATE SET
+                byteOffset = excluded.byteOffset,
+                rowsDone = excluded.rowsDone,
+                fileSize = excluded.fileSize,
+                lastModified = excluded.lastModified,
+                updatedAt = CURRENT_TIMESTAMP
+        """)) {
+            ps.setString(1, feed);
+            ps.setLong(2, checkpoint.byteOffset());
+            ps.setLong(3, checkpoint.rowsDone());
+            ps.setLong(4, checkpoint.fileSize());
+            ps.setLong(5, checkpoint.lastModified());
+            ps.executeUpdate();
+        }
+    }
+
+    public static void clear(DatabaseManager db, String feed) {
+        db.executePrepared("DELETE FROM import_checkpoints WHERE feed = ?", feed);
+    }
+}
@@ -0,0 +1,35 @@
+package com.bookstore.online_bookstore.importer;
+
+/**
+ * ImportOptions
+ * dryRun parses and validates without writing; resume continues from
+ * the last committed chunk of an interrupted run of the same file.
+ */
+public record ImportOptions(boolean dryRun, boolean resume, int workers, int chunkRows) {
+
+    public ImportOptions {
+        if (workers < 1) throw new IllegalArgumentException("workers must be at least 1");
+        if (chunkRows < 1) throw new IllegalArgumentException("chunkRows must be at least 1");
+    }
+
+    public static ImportOptions defaults() {
+        int workers = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        return new ImportOptions(false, true, workers, 10_000);
+    }
+
+    public ImportOptions withDryRun(boolean dryRun) {
+        return new ImportOptions(dryRun, resume, workers, chunkRows);
+    }
+
+    public ImportOptions withResume(boolean resume) {
+        return new ImportOptions(dryRun, resume, workers, chunkRows);
+    }
+
+    public ImportOptions withWorkers(int workers) {
+        return new ImportOptions(dryRun, resume, workers, chunkRows);
+    }
+
+    public ImportOptions withChunkRows(int chunkRows) {
+        return new ImportOptions(dryRun, resume, workers, chunkRows);
+    }
+}
@@ -0,0 +1,26 @@
+package com.bookstore.online_bookstore.importer;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * ImportReport
+ * Outcome of one importer run. Row counts cover this run only;
+ * errors holds a bounded sample of rejected rows.
+ */
+public record ImportReport(
+        long rowsRead,
+        long rowsImported,
+        long rowsRejected,
+        long resumedFromRow,
+        Duration elapsed,
+        boolean dryRun,
+        boolean completed,
+        List<String> errors
+) {
+
+    public double rowsPerSecond() {
+        double seconds = elapsed.toNanos() / 1_000_000_000.0;
+        return seconds > 0 ? rowsRead / seconds : 0.0;
+    }
+}
@@ -1,11 +1,32 @@
 package com.bookstore.online_bookstore.model;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import com.bookstore.online_bookstore.catalog.CatalogStore;
+import com.bookstore.online_bookstore.catalog.CatalogStores;
+import com.bookstore.online_bookstore.covers.CoverPipeline;
+import com.bookstore.online_bookstore.db.BatchWriter;
 import com.bookstore.online_bookstore.db.DatabaseManager;
+import com.bookstore.online_bookstore.db.RowMapper;
+import com.bookstore.online_bookstore.snapshot.CatalogSnapshot;
+import com.bookstore.online_bookstore.snapshot.CatalogSnapshots;
 
 public class Book {
     private String isbn;
@@ -20,6 +41,9 @@ public class Book {
     public String genre;
     public String status;
     public boolean isPromo;
+    private double price;
+    private int stock;
+    private String description;
 
     public Book(String isbn, String coverImageUrl, String title, String author, String publisher, int publicationYear,
             String language, int pageCount, String type, String genre) {
@@ -86,6 +110,18 @@ public class Book {
         return isPromo;
     }
 
+    public double getPrice() {
+        return price;
+    }
+
+    public int getStock() {
+        return stock;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
     // Setters
     public void setIsbn(String isbn) {
         this.isbn = isbn;
@@ -135,34 +171,125 @@ public class Book {
         isPromo = promo;
     }
 
+    public void setPrice(double price) {
+        this.price = price;
+    }
+
+    public void setStock(int stock) {
+        this.stock = stock;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    Book copy() {
+        Book copy = new Book(isbn, coverImageUrl, title, author, publisher, publicationYear,
+                language, pageCount, type, genre);
+        copy.status = status;
+        copy.isPromo = isPromo;
+        copy.price = price;
+        copy.stock = stock;
+        copy.description = description;
+        return copy;
+    }
+
+    private static final BookSearch SEARCH = new BookSearch();
+
+    private static final String INSERT_SQL = "INSERT INTO books (isbn, coverImageUrl, title, author, publisher, " +
+            "publicationYear, language, pageCount, type, genre, status, isPromo, price, stock, description) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Same columns as INSERT_SQL; an existing ISBN is overwritten in place
+    private static final String UPSERT_SQL = INSERT_SQL + " ON CONFLICT(isbn) DO UPDATE SET " +
+            "coverImageUrl = excluded.coverImageUrl, title = excluded.title, author = excluded.author, " +
+            "publisher = excluded.publisher, publicationYear = excluded.publicationYear, " +
+            "language = excluded.language, pageCount = excluded.pageCount, type = excluded.type, " +
+            "genre = excluded.genre, status = excluded.status, isPromo = excluded.isPromo, " +
+            "price = excluded.price, stock = excluded.stock, description = excluded.description";
+
+    // Mapping Book fields to the column order of INSERT_SQL
+    private static Object[] toInsertParams(Book book) {
+        return new Object[] {
+                book.getIsbn(),
+                book.getCoverImageUrl(),
+                book.getTitle(),
+                book.getAuthor(),
+                book.getPublisher(),
+                book.getPublicationYear(),
+                book.getLanguage(),
+                book.getPageCount(),
+                book.getType(),
+                book.getGenre(),
+                book.getStatus(),
+                book.isPromo() ? 1 : 0, // Converting boolean to SQLite integer
+                book.getPrice(),
+                book.getStock(),
+                book.getDescription()
+        };
+    }
+
     public void saveBook(Book book) {
         DatabaseManager db = DatabaseManager.getInstance();
 
         if (db.connect()) {
-            String sql = "INSERT INTO books (isbn, coverImageUrl, title, author, publisher, " +
-                    "publicationYear, language, pageCount, type, genre, status, isPromo) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
-            // Mapping Book fields to the DatabaseManager executePrepared method
-            db.executePrepared(sql,
-                    book.getIsbn(),
-                    book.getCoverImageUrl(),
-                    book.getTitle(),
-                    book.getAuthor(),
-                    book.getPublisher(),
-                    book.getPublicationYear(),
-                    book.getLanguage(),
-                    book.getPageCount(),
-                    book.getType(),
-                    book.getGenre(),
-                    book.getStatus(),
-                    book.isPromo() ? 1 : 0 // Converting boolean to SQLite integer
-            );
+            db.executePrepared(INSERT_SQL, toInsertParams(book));
+            catalogChanged(List.of(book.getIsbn()));
+            db.afterCommit(() -> CoverPipeline.getInstance().submitAll(List.of(book)));
         }
     }
 
+    /**
+     * Bulk insert: rows are committed in chunks rather than one
+     * transaction per book. Rows that fail are listed in the result.
+     */
+    public static BatchWriter.Result saveBooks(Collection<Book> books) {
+        return writeBatch(INSERT_SQL, books);
+    }
+
+    /**
+     * Bulk insert-or-update keyed by ISBN, chunked like saveBooks.
+     */
+    public static BatchWriter.Result upsertBooks(Collection<Book> books) {
+        return writeBatch(UPSERT_SQL, books);
+    }
+
+    private static BatchWriter.Result writeBatch(String sql, Collection<Book> books) {
+        DatabaseManager db = DatabaseManager.getInstance();
+
+        if (!db.connect()) {
+            return new BatchWriter.Result(0, 0, 0, List.of());
+        }
+
+        List<String> isbns = new ArrayList<>(books.size());
+        try (BatchWriter batch = db.batch(sql)) {
+            for (Book book : books) {
+                batch.addBatch(toInsertParams(book));
+                isbns.add(book.getIsbn());
+            }
+            batch.executeBatch();
+            db.afterCommit(() -> CoverPipeline.getInstance().submitAll(books));
+            return batch.getResult();
+        } finally {
+            catalogChanged(isbns);
+        }
+    }
+
+    // Store and version go first: once BookCache drops an ISBN, a reader
+    // missing it must not find the old row in the store or the snapshot,
+    // which are only trusted while they match the catalog version.
+    // Inside a caller's transaction this waits for the commit, so nothing
+    // in memory runs ahead of the database or keeps rows rolled back.
+    private static void catalogChanged(Collection<String> isbns) {
+        DatabaseManager.getInstance().afterCommit(() -> {
+            CatalogStores.getInstance().refresh(isbns);
+            CatalogVersion.getInstance().refresh();
+            BookCache.getInstance().invalidateAll(isbns);
+        });
+    }
+
     // Put this inside your class to reuse the logic
-    private Book mapResultSetToBook(ResultSet rs) throws SQLException {
+    static Book mapResultSetToBook(ResultSet rs) throws SQLException {
         Book book = new Book(
                 rs.getString("isbn"),
                 rs.getString("coverImageUrl"),
@@ -176,56 +303,56 @@ public class Book {
                 rs.getString("genre"));
         book.setStatus(rs.getString("status"));
         book.setPromo(rs.getInt("isPromo") == 1);
+        book.setPrice(rs.getDouble("price"));
+        book.setStock(rs.getInt("stock"));
+        book.setDescription(rs.getString("description"));
         return book;
     }
 
+    // Substring match anywhere in the title ("Harry" inside "Harry Potter"),
+    // every matching book, unranked
     public List<Book> searchByTitle(String title) {
-        List<Book> books = new ArrayList<>();
-        DatabaseManager db = DatabaseManager.getInstance();
-
-        // Using % so it finds "Harry" inside "Harry Potter"
         String sql = "SELECT * FROM books WHERE title LIKE ?";
-
-        try (ResultSet rs = db.executeQuery(sql, "%" + title + "%")) {
-            while (rs != null && rs.next()) {
-                books.add(mapResultSetToBook(rs));
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return books;
+        return DatabaseManager.getInstance().query(sql, Book::mapResultSetToBook, "%" + title + "%");
     }
 
     public List<Book> searchByAuthor(String author) {
-        List<Book> books = new ArrayList<>();
-        DatabaseManager db = DatabaseManager.getInstance();
-
         String sql = "SELECT * FROM books WHERE author LIKE ?";
+        return DatabaseManager.getInstance().query(sql, Book::mapResultSetToBook, "%" + author + "%");
+    }
 
-        try (ResultSet rs = db.executeQuery(sql, "%" + author + "%")) {
-            while (rs != null && rs.next()) {
-                books.add(mapResultSetToBook(rs));
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return books;
+    // Ranked searches go through the full-text index instead: whole words,
+    // the last one as a prefix, best matches first, at most limit of them
+    public List<Book> searchByTitleRanked(String title, int limit) {
+        return SEARCH.searchBooks(title, EnumSet.of(BookSearch.Field.TITLE), limit);
+    }
+
+    public List<Book> searchByAuthorRanked(String author, int limit) {
+        return SEARCH.searchBooks(author, EnumSet.of(BookSearch.Field.AUTHOR), limit);
     }
 
+    // Served from BookCache; a cache miss reads the in-memory CatalogStore or
+    // the catalog snapshot while they are current, and only then SQLite
     public Book getBookByIsbn(String isbn) {
+        return BookCache.getInstance().get(isbn, Book::loadBookByIsbn);
+    }
+
+    private static Book loadBookByIsbn(String isbn) {
+        CatalogStore store = CatalogStores.getInstance().current();
+        if (store != null) {
+            return store.get(isbn);
+        }
+        CatalogSnapshot snapshot = CatalogSnapshots.getInstance().current();
+        if (snapshot != null) {
+            return snapshot.get(isbn);
+        }
+
         DatabaseManager db = DatabaseManager.getInstance();
         String sql = "SELECT * FROM books WHERE isbn = ?";
 
         // We pass only the isbn string directly (no % needed for exact match)
-        try (ResultSet rs = db.executeQuery(sql, isbn)) {
-            if (rs != null && rs.next()) {
-                // Reusing the helper method to convert result set to Book object
-                return mapResultSetToBook(rs);
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return null; // Return null if no book with that ISBN exists
+        // Returns null if no book with that ISBN exists
+        return db.queryOne(sql, Book::mapResultSetToBook, isbn);
     }
 
     public void updateBook(Book book) {
@@ -234,21 +361,238 @@ public class Book {
             String sql = "UPDATE books SET title=?, author=?, status=? WHERE isbn=?";
             db.executePrepared(sql, book.getTitle(), book.getAuthor(), book.getStatus(),
                     book.getIsbn());
+            catalogChanged(List.of(book.getIsbn()));
         }
     }
 
     public List<Book> getAllBooks() {
-        List<Book> books = new ArrayList<>();
+        CatalogStore store = CatalogStores.getInstance().current();
+        if (store != null) {
+            return store.toBooks();
+        }
+
         DatabaseManager db = DatabaseManager.getInstance();
         String sql = "SELECT * FROM books";
 
-        try (ResultSet rs = db.executeQuery(sql)) {
-            while (rs != null && rs.next()) {
-                books.add(mapResultSetToBook(rs));
+        return db.query(sql, Book::mapResultSetToBook);
+    }
+
+    // ============================================================
+    // BULK LOOKUPS
+    // ============================================================
+    // Larger key sets are split into several IN lists of this size
+    private static final int MAX_IN_LIST = 512;
+
+    /**
+     * Genre of every known ISBN in isbns, in one query for up to
+     * MAX_IN_LIST distinct ISBNs. Unknown ISBNs and books without a
+     * genre are left out of the map.
+     */
+    public static Map<String, String> getGenresByIsbn(Collection<String> isbns) {
+        Map<String, String> genres = new HashMap<>();
+        try {
+            for (Map.Entry<String, String> row : queryByIsbn("SELECT isbn, genre FROM books WHERE genre IS NOT NULL AND",
+                    rs -> Map.entry(rs.getString("isbn"), rs.getString("genre")), isbns)) {
+                genres.put(row.getKey(), row.getValue());
             }
         } catch (SQLException e) {
-            e.printStackTrace();
+            System.err.println("❌ Query Failed: " + e.getMessage());
+        }
+        return genres;
+    }
+
+    /**
+     * Every known book among isbns, batched like getGenresByIsbn and
+     * read straight from the database. Unknown ISBNs are left out; a
+     * failed read throws rather than returning fewer books.
+     */
+    public static List<Book> getBooksByIsbn(Collection<String> isbns) throws SQLException {
+        return queryByIsbn("SELECT * FROM books WHERE", Book::mapResultSetToBook, isbns);
+    }
+
+    // Runs select + " isbn IN (...)" over isbns, MAX_IN_LIST at a time
+    private static <T> List<T> queryByIsbn(String select, RowMapper<T> mapper, Collection<String> isbns)
+            throws SQLException {
+        List<T> rows = new ArrayList<>();
+        List<String> keys = new ArrayList<>(new LinkedHashSet<>(isbns));
+        keys.remove(null);
+
+        DatabaseManager db = DatabaseManager.getInstance();
+        for (int from = 0; from < keys.size(); from += MAX_IN_LIST) {
+            List<String> chunk = keys.subList(from, Math.min(keys.size(), from + MAX_IN_LIST));
+
+            // Pad the IN list to a power of two so carts of similar size share
+            // one cached statement; NULL never matches, so padding is harmless
+            int slots = Integer.highestOneBit(chunk.size());
+            if (slots < chunk.size()) slots <<= 1;
+            Object[] params = new Object[slots];
+            chunk.toArray(params);
+
+            String sql = select + " isbn IN (" + String.join(", ", Collections.nCopies(slots, "?")) + ")";
+            rows.addAll(db.queryOrThrow(sql, mapper, params));
+        }
+        return rows;
+    }
+
+    // ============================================================
+    // KEYSET PAGINATION
+    // ============================================================
+    public static final int MAX_PAGE_SIZE = 10_000;
+
+    // Columns a listing may project; anything else is rejected
+    private static final List<String> COLUMNS = List.of(
+            "isbn", "coverImageUrl", "title", "author", "publisher", "publicationYear",
+            "language", "pageCount", "type", "genre", "status", "isPromo",
+            "price", "stock", "description");
+
+    /**
+     * Lists books after cursor (null for the first page) in sort order.
+     * Only the given columns are read; none means all of them. Each page
+     * is one indexed range scan, however deep into the catalog it is.
+     * ISBN order is read from the catalog snapshot while it is current
+     * (with every column, a superset of any projection).
+     */
+    public BookPage listBooks(BookSort sort, String cursor, int pageSize, String... columns) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("pageSize must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Set<String> projection = projection(columns);
+
+        CatalogSnapshot snapshot = sort == BookSort.ISBN ? CatalogSnapshots.getInstance().current() : null;
+        if (snapshot != null) {
+            String after = cursor != null ? decodeCursor(sort, cursor)[0] : null;
+            List<Book> books = snapshot.listAfter(after, pageSize + 1);
+            return page(books, pageSize, null);
+        }
+
+        DatabaseManager db = DatabaseManager.getInstance();
+        String select = String.join(", ", projection) + (sort == BookSort.CREATED_AT ? ", createdAt" : "");
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(select).append(" FROM books");
+        List<Object> params = new ArrayList<>();
+        if (cursor != null) {
+            String[] key = decodeCursor(sort, cursor);
+            if (sort == BookSort.CREATED_AT) {
+                sql.append(" WHERE (createdAt, isbn) > (?, ?)");
+            } else {
+                sql.append(" WHERE isbn > ?");
+            }
+            params.addAll(List.of((Object[]) key));
+        }
+        sql.append(" ORDER BY ").append(sort.orderBy()).append(" LIMIT ?");
+        params.add(pageSize + 1); // one extra row tells us whether another page exists
+
+        List<String> createdAts = new ArrayList<>();
+        List<Set<String>> present = new ArrayList<>(1);
+        List<Book> books = db.query(sql.toString(), rs -> {
+            if (present.isEmpty()) {
+                present.add(columnLabels(rs));
+            }
+            if (sort == BookSort.CREATED_AT) {
+                createdAts.add(rs.getString("createdAt"));
+            }
+            return mapProjectedRow(rs, present.get(0));
+        }, params.toArray());
+
+        return page(books, pageSize, sort == BookSort.CREATED_AT ? createdAts : null);
+    }
+
+    // books holds up to pageSize + 1 rows; the extra one only says another page exists
+    private static BookPage page(List<Book> books, int pageSize, List<String> createdAts) {
+        if (books.size() <= pageSize) {
+            return new BookPage(books, null);
+        }
+        books.remove(pageSize);
+
+        String lastIsbn = books.get(pageSize - 1).getIsbn();
+        String nextCursor = createdAts != null
+                ? encodeCursor(createdAts.get(pageSize - 1), lastIsbn)
+                : encodeCursor(lastIsbn);
+        return new BookPage(books, nextCursor);
+    }
+
+    /**
+     * Every book in sort order, fetched lazily one page at a time.
+     */
+    public Stream<Book> streamBooks(BookSort sort, int pageSize, String... columns) {
+        return Stream.iterate(
+                        listBooks(sort, null, pageSize, columns),
+                        page -> page != null,
+                        page -> page.hasMore() ? listBooks(sort, page.nextCursor(), pageSize, columns) : null)
+                .flatMap(page -> page.books().stream());
+    }
+
+    public void forEachBook(BookSort sort, int pageSize, Consumer<Book> action, String... columns) {
+        String cursor = null;
+        do {
+            BookPage page = listBooks(sort, cursor, pageSize, columns);
+            page.books().forEach(action);
+            cursor = page.nextCursor();
+        } while (cursor != null);
+    }
+
+    private static Set<String> projection(String... columns) {
+        if (columns.length == 0) {
+            return new LinkedHashSet<>(COLUMNS);
+        }
+        Set<String> projection = new LinkedHashSet<>();
+        projection.add("isbn"); // always needed for the cursor
+        for (String column : columns) {
+            String match = COLUMNS.stream()
+                    .filter(c -> c.equalsIgnoreCase(column))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown book column: " + column));
+            projection.add(match);
+        }
+        return projection;
+    }
+
+    private static Set<String> columnLabels(ResultSet rs) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        Set<String> labels = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            labels.add(meta.getColumnLabel(i));
+        }
+        return labels;
+    }
+
+    // Like mapResultSetToBook, but leaves fields that were not selected at their defaults
+    private static Book mapProjectedRow(ResultSet rs, Set<String> present) throws SQLException {
+        Book book = new Book(
+                rs.getString("isbn"),
+                present.contains("coverImageUrl") ? rs.getString("coverImageUrl") : null,
+                present.contains("title") ? rs.getString("title") : null,
+                present.contains("author") ? rs.getString("author") : null,
+                present.contains("publisher") ? rs.getString("publisher") : null,
+                present.contains("publicationYear") ? rs.getInt("publicationYear") : 0,
+                present.contains("language") ? rs.getString("language") : null,
+                present.contains("pageCount") ? rs.getInt("pageCount") : 0,
+                present.contains("type") ? rs.getString("type") : null,
+                present.contains("genre") ? rs.getString("genre") : null);
+        if (present.contains("status")) book.setStatus(rs.getString("status"));
+        if (present.contains("isPromo")) book.setPromo(rs.getInt("isPromo") == 1);
+        if (present.contains("price")) book.setPrice(rs.getDouble("price"));
+        if (present.contains("stock")) book.setStock(rs.getInt("stock"));
+        if (present.contains("description")) book.setDescription(rs.getString("description"));
+        return book;
+    }
+
+    private static String encodeCursor(String... key) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.join("\n", key).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(BookSort sort, String cursor) {
+        String[] key;
+        try {
+            key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\n", -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        int expected = sort == BookSort.CREATED_AT ? 2 : 1;
+        if (key.length != expected) {
+            throw new IllegalArgumentException("Cursor does not match sort " + sort.name().toLowerCase(Locale.ROOT));
         }
-        return books;
+        return key;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,93 @@
+package com.bookstore.online_bookstore.model;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * BookCache
+ * Read-through cache for single-book lookups by ISBN.
+ * Caffeine's W-TinyLFU policy keeps the hot bestsellers when the cache
+ * is full. Unknown ISBNs are cached too, with a shorter TTL, so repeated
+ * misses don't reach SQLite either. Writes through Book invalidate.
+ */
+public class BookCache {
+
+    private static volatile BookCache instance = new BookCache(10_000, Duration.ofMinutes(10), Duration.ofSeconds(30));
+
+    private final Cache<String, Optional<Book>> cache;
+    private final LongAdder negativeHits = new LongAdder();
+
+    public BookCache(long maxSize, Duration ttl, Duration negativeTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.<String, Optional<Book>>creating(
+                        (isbn, book) -> book.isPresent() ? ttl : negativeTtl))
+                .recordStats()
+                .build();
+    }
+
+    public static BookCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Replaces the shared cache, e.g. with sizes from application config.
+     */
+    public static void configure(long maxSize, Duration ttl, Duration negativeTtl) {
+        instance = new BookCache(maxSize, ttl, negativeTtl);
+    }
+
+    // ============================================================
+    // LOOKUP
+    // ============================================================
+    /**
+     * Cached book for isbn, loading it on a miss; null when it does not
+     * exist. Callers get their own copy, so changing it can't leak into
+     * what other readers see.
+     */
+    public Book get(String isbn, Function<String, Book> loader) {
+        Optional<Book> cached = cache.get(isbn, key -> Optional.ofNullable(loader.apply(key)));
+        if (cached.isEmpty()) {
+            negativeHits.increment();
+            return null;
+        }
+        return cached.get().copy();
+    }
+
+    // ============================================================
+    // INVALIDATION
+    // ============================================================
+    public void invalidate(String isbn) {
+        cache.invalidate(isbn);
+    }
+
+    public void invalidateAll(Collection<String> isbns) {
+        cache.invalidateAll(isbns);
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    // ============================================================
+    // METRICS
+    // ============================================================
+    public Stats getStats() {
+        CacheStats stats = cache.stats();
+        return new Stats(cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                negativeHits.sum(), stats.evictionCount(), stats.hitRate());
+    }
+
+    /**
+     * negativeLookups counts lookups, hit or miss, that found no book.
+     */
+    public record Stats(long size, long hits, long misses, long negativeLookups, long evictions, double hitRate) {}
+}
@@ -0,0 +1,110 @@
+package com.bookstore.online_bookstore.model;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import com.bookstore.online_bookstore.db.DatabaseManager;
+
+/**
+ * BookExport
+ * Walks the whole catalog (or a filtered part of it) in ISBN order for
+ * bulk exports. Rows are read in keyset pages, so at most one page of
+ * books is in memory at a time however large the catalog is, and the
+ * read connection goes back to the pool between pages instead of being
+ * held for as long as the slowest client takes to download.
+ */
+public class BookExport {
+
+    public static final int DEFAULT_PAGE_SIZE = 500;
+
+    // Format SQLite's CURRENT_TIMESTAMP writes createdAt/updatedAt in (UTC)
+    private static final DateTimeFormatter SQLITE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneOffset.UTC);
+
+    /**
+     * genres: only books in one of these (empty for all).
+     * updatedSince: only books added or changed at or after this time (null for all).
+     */
+    public record Filter(Set<String> genres, Instant updatedSince) {
+
+        public static final Filter ALL = new Filter(Set.of(), null);
+
+        public Filter {
+            genres = genres == null ? Set.of() : Set.copyOf(genres);
+        }
+    }
+
+    /**
+     * Passes every book matching filter to action, in ISBN order.
+     * Returns how many there were. A page that can't be read (pool
+     * timeout, bulkhead rejection, locked database) throws
+     * IllegalStateException rather than ending the walk early, so an
+     * export in progress is aborted instead of looking complete.
+     */
+    public long forEach(Filter filter, int pageSize, Consumer<Book> action) {
+        if (pageSize < 1 || pageSize > Book.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("pageSize must be between 1 and " + Book.MAX_PAGE_SIZE);
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT * FROM books WHERE isbn > ?");
+        List<Object> filterParams = new ArrayList<>();
+        if (!filter.genres().isEmpty()) {
+            sql.append(" AND genre IN (")
+                    .append(String.join(", ", Collections.nCopies(filter.genres().size(), "?")))
+                    .append(")");
+            filterParams.addAll(filter.genres());
+        }
+        if (filter.updatedSince() != null) {
+            sql.append(" AND COALESCE(updatedAt, createdAt) >= ?");
+            filterParams.add(SQLITE_TIMESTAMP.format(filter.updatedSince()));
+        }
+        sql.append(" ORDER BY isbn LIMIT ?");
+
+        Object[] params = new Object[filterParams.size() + 2];
+        for (int i = 0; i < filterParams.size(); i++) {
+            params[i + 1] = filterParams.get(i);
+        }
+        params[params.length - 1] = pageSize;
+
+        DatabaseManager db = DatabaseManager.getInstance();
+        long count = 0;
+        String after = "";
+        while (true) {
+            params[0] = after;
+            List<Book> page;
+            try {
+                page = db.queryOrThrow(sql.toString(), Book::mapResultSetToBook, params);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Export stopped after " + count + " books: " + e.getMessage(), e);
+            }
+            for (Book book : page) {
+                action.accept(book);
+            }
+            count += page.size();
+            if (page.size() < pageSize) return count;
+            after = page.get(page.size() - 1).getIsbn();
+        }
+    }
+
+    /**
+     * forEach over the whole catalog, for callers that must not keep a
+     * partial copy (snapshots, in-memory stores). The count is also
+     * checked against the table at the end; a mismatch, e.g. from
+     * concurrent writes, throws IllegalStateException.
+     */
+    public long forEachComplete(int pageSize, Consumer<Book> action) {
+        long count = forEach(Filter.ALL, pageSize, action);
+        int expected = DatabaseManager.getInstance().getTableRowCount("books");
+        if (count != expected) {
+            throw new IllegalStateException("Read " + count + " books but the table has " + expected);
+        }
+        return count;
+    }
+}
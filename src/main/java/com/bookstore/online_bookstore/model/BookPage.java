@@ -0,0 +1,15 @@
+package com.bookstore.online_bookstore.model;
+
+import java.util.List;
+
+/**
+ * BookPage
+ * One page of a keyset listing. Pass nextCursor back to get the page
+ * after it; it is null on the last page.
+ */
+public record BookPage(List<Book> books, String nextCursor) {
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
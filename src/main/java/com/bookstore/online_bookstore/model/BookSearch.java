@@ -0,0 +1,155 @@
+package com.bookstore.online_bookstore.model;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.bookstore.online_bookstore.db.DatabaseManager;
+
+/**
+ * BookSearch
+ * Full-text search over title, author and description using the
+ * books_fts FTS5 index from DatabaseSetup, ranked by BM25.
+ * Falls back to LIKE scans on databases that predate the index.
+ */
+public class BookSearch {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    public enum Field {
+        TITLE("title"),
+        AUTHOR("author"),
+        DESCRIPTION("description");
+
+        private final String column;
+
+        Field(String column) {
+            this.column = column;
+        }
+
+        public String column() {
+            return column;
+        }
+    }
+
+    /**
+     * score is the BM25 relevance: higher is better. Always 0 without the index.
+     */
+    public record Hit(Book book, double score) {}
+
+    private static final String FTS_SQL = """
+        SELECT books.*, -books_fts.rank AS score
+        FROM books_fts
+        JOIN books ON books.rowid = books_fts.rowid
+        WHERE books_fts MATCH ?
+        ORDER BY books_fts.rank
+        LIMIT ?
+    """;
+
+    private volatile boolean indexAvailable;
+
+    // ============================================================
+    // SEARCH
+    // ============================================================
+    /**
+     * Every word of text must match in at least one of fields. With
+     * prefix on, the last word also matches longer words ("harry pott"
+     * finds "Harry Potter"), which is what search-as-you-type needs.
+     */
+    public List<Hit> search(String text, Set<Field> fields, int limit, boolean prefix) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("At least one field is required");
+        }
+
+        List<String> terms = terms(text);
+        if (terms.isEmpty()) return new ArrayList<>();
+
+        DatabaseManager db = DatabaseManager.getInstance();
+        if (!isIndexAvailable(db)) {
+            return likeSearch(db, terms, fields, limit);
+        }
+
+        return db.query(FTS_SQL,
+                rs -> new Hit(Book.mapResultSetToBook(rs), rs.getDouble("score")),
+                matchExpression(terms, fields, prefix), limit);
+    }
+
+    public List<Book> searchBooks(String text, Set<Field> fields, int limit) {
+        List<Book> books = new ArrayList<>();
+        for (Hit hit : search(text, fields, limit, true)) {
+            books.add(hit.book());
+        }
+        return books;
+    }
+
+    public List<Book> searchBooks(String text, int limit) {
+        return searchBooks(text, EnumSet.allOf(Field.class), limit);
+    }
+
+    // ============================================================
+    // QUERY BUILDING
+    // ============================================================
+    static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) return terms;
+
+        for (String term : text.split("[^\\p{L}\\p{N}]+")) {
+            if (!term.isEmpty()) terms.add(term);
+        }
+        return terms;
+    }
+
+    /**
+     * Each term is quoted, so FTS5 operators typed by users (AND, NEAR,
+     * column:, ...) are searched for literally instead of interpreted.
+     */
+    static String matchExpression(List<String> terms, Set<Field> fields, boolean prefix) {
+        StringBuilder query = new StringBuilder();
+        for (int i = 0; i < terms.size(); i++) {
+            if (i > 0) query.append(' ');
+            query.append('"').append(terms.get(i)).append('"');
+            if (prefix && i == terms.size() - 1) query.append('*');
+        }
+
+        if (fields.size() == Field.values().length) return query.toString();
+
+        String columns = fields.stream().map(Field::column).collect(Collectors.joining(" "));
+        return "{" + columns + "} : (" + query + ")";
+    }
+
+    // ============================================================
+    // FALLBACK
+    // ============================================================
+    private boolean isIndexAvailable(DatabaseManager db) {
+        if (!indexAvailable) {
+            indexAvailable = db.queryOne(
+                    "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'books_fts'",
+                    rs -> true) != null;
+        }
+        return indexAvailable;
+    }
+
+    private List<Hit> likeSearch(DatabaseManager db, List<String> terms, Set<Field> fields, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM books WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+
+        for (String term : terms) {
+            sql.append(" AND (");
+            sql.append(fields.stream().map(f -> f.column() + " LIKE ?").collect(Collectors.joining(" OR ")));
+            sql.append(")");
+            for (int i = 0; i < fields.size(); i++) {
+                params.add("%" + term + "%");
+            }
+        }
+        sql.append(" LIMIT ?");
+        params.add(limit);
+
+        return db.query(sql.toString(), rs -> new Hit(Book.mapResultSetToBook(rs), 0.0), params.toArray());
+    }
+}
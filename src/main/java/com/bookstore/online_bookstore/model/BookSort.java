@@ -0,0 +1,21 @@
+package com.bookstore.online_bookstore.model;
+
+/**
+ * BookSort
+ * Orderings that keyset pagination can resume from: each one ends on
+ * the unique isbn, so a cursor always points at exactly one row.
+ */
+public enum BookSort {
+    ISBN("isbn"),
+    CREATED_AT("createdAt, isbn");
+
+    private final String orderBy;
+
+    BookSort(String orderBy) {
+        this.orderBy = orderBy;
+    }
+
+    public String orderBy() {
+        return orderBy;
+    }
+}
@@ -0,0 +1,25 @@
+package com.bookstore.online_bookstore.model;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * CacheConfig
+ * Sizes the in-process catalog caches from application properties
+ */
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public BookCache bookCache(
+            @Value("${bookstore.cache.books.max-size:10000}") long maxSize,
+            @Value("${bookstore.cache.books.ttl:10m}") Duration ttl,
+            @Value("${bookstore.cache.books.negative-ttl:30s}") Duration negativeTtl
+    ) {
+        BookCache.configure(maxSize, ttl, negativeTtl);
+        return BookCache.getInstance();
+    }
+}
@@ -0,0 +1,170 @@
+package com.bookstore.online_bookstore.model;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+import com.bookstore.online_bookstore.db.DatabaseManager;
+
+/**
+ * CartService
+ * Adds, changes and removes cart items, and keeps the cart's running
+ * totals (subtotal, item count, books per genre) up to date by applying
+ * each change as a delta, in the same transaction as the cart_items
+ * write. Nothing ever re-sums a cart.
+ *
+ * totalPrice is recomputed from the new totals by the pricer given to
+ * the constructor (the undiscounted subtotal by default). Every change
+ * also clears discountedTotal, which belongs to the re-pricing job, so
+ * a discounted total is never left standing for a cart it no longer fits.
+ */
+public class CartService {
+
+    private record Line(long cartItemID, int quantity, double unitPrice, String genre) {}
+
+    private final DatabaseManager db;
+    private final ToDoubleFunction<CartTotals> pricer;
+
+    public CartService(DatabaseManager db) {
+        this(db, CartTotals::subtotal);
+    }
+
+    public CartService(DatabaseManager db, ToDoubleFunction<CartTotals> pricer) {
+        this.db = db;
+        this.pricer = pricer;
+    }
+
+    // ============================================================
+    // CARTS
+    // ============================================================
+    public int getOrCreateCart(int userID) throws SQLException {
+        return db.inTransaction(conn -> {
+            Integer cartID = db.queryOneOrThrow("SELECT cartID FROM shopping_cart WHERE userID = ?",
+                    rs -> rs.getInt(1), userID);
+            if (cartID != null) return cartID;
+
+            update(conn, "INSERT INTO shopping_cart (userID) VALUES (?)", userID);
+            return db.queryOneOrThrow("SELECT last_insert_rowid()", rs -> rs.getInt(1));
+        });
+    }
+
+    /**
+     * Current totals of cartID, or null if there is no such cart. One
+     * statement, so the figures always belong together. A failed read
+     * throws, so a transaction calling this rolls back.
+     */
+    public CartTotals getTotals(int cartID) throws SQLException {
+        List<Object[]> rows = db.queryOrThrow("""
+            SELECT c.userID, c.subtotal, c.itemCount, c.totalPrice, g.genre, g.quantity
+            FROM shopping_cart c
+            LEFT JOIN cart_genre_totals g ON g.cartID = c.cartID
+            WHERE c.cartID = ?
+        """, rs -> new Object[] {
+                rs.getInt("userID"), rs.getDouble("subtotal"), rs.getInt("itemCount"),
+                rs.getDouble("totalPrice"), rs.getString("genre"), rs.getInt("quantity")
+        }, cartID);
+
+        if (rows.isEmpty()) return null;
+
+        Map<String, Integer> genres = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            if (row[4] != null) genres.put((String) row[4], (Integer) row[5]);
+        }
+        Object[] cart = rows.get(0);
+        return new CartTotals(cartID, (Integer) cart[0], (Double) cart[1], (Integer) cart[2],
+                Map.copyOf(genres), (Double) cart[3]);
+    }
+
+    // ============================================================
+    // ITEMS
+    // ============================================================
+    /**
+     * Adds quantity copies of isbn, on top of any already in the cart.
+     */
+    public CartTotals addItem(int cartID, String isbn, int quantity) throws SQLException {
+        if (quantity < 1) {
+            throw new IllegalArgumentException("quantity must be at least 1");
+        }
+        return changeLine(cartID, isbn, quantity, true);
+    }
+
+    /**
+     * Sets how many copies of isbn the cart holds; 0 removes the line.
+     */
+    public CartTotals setQuantity(int cartID, String isbn, int quantity) throws SQLException {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("quantity cannot be negative");
+        }
+        return changeLine(cartID, isbn, quantity, false);
+    }
+
+    public CartTotals removeItem(int cartID, String isbn) throws SQLException {
+        return changeLine(cartID, isbn, 0, false);
+    }
+
+    private CartTotals changeLine(int cartID, String isbn, int quantity, boolean relative) throws SQLException {
+        return db.inTransaction(conn -> {
+            Line line = db.queryOneOrThrow(
+                    "SELECT cartItemID, quantity, unitPrice, genre FROM cart_items WHERE cartID = ? AND isbn = ?",
+                    rs -> new Line(rs.getLong("cartItemID"), rs.getInt("quantity"),
+                            rs.getDouble("unitPrice"), rs.getString("genre")),
+                    cartID, isbn);
+
+            int current = line != null ? line.quantity() : 0;
+            int target = relative ? current + quantity : quantity;
+            int delta = target - current;
+            if (delta == 0) return getTotals(cartID);
+
+            if (line == null) {
+                // New line: remember the price and genre it goes in with
+                line = db.queryOneOrThrow("SELECT price, genre FROM books WHERE isbn = ?",
+                        rs -> new Line(0, 0, rs.getDouble("price"), rs.getString("genre")), isbn);
+                if (line == null) {
+                    throw new IllegalArgumentException("Unknown book: " + isbn);
+                }
+                update(conn, "INSERT INTO cart_items (cartID, isbn, quantity, unitPrice, genre) VALUES (?, ?, ?, ?, ?)",
+                        cartID, isbn, target, line.unitPrice(), line.genre());
+            } else if (target == 0) {
+                update(conn, "DELETE FROM cart_items WHERE cartItemID = ?", line.cartItemID());
+            } else {
+                update(conn, "UPDATE cart_items SET quantity = ? WHERE cartItemID = ?", target, line.cartItemID());
+            }
+
+            int carts = update(conn,
+                    "UPDATE shopping_cart SET subtotal = ROUND(subtotal + ?, 2), itemCount = itemCount + ? WHERE cartID = ?",
+                    line.unitPrice() * delta, delta, cartID);
+            if (carts == 0) {
+                throw new IllegalArgumentException("Unknown cart: " + cartID);
+            }
+
+            if (line.genre() != null) {
+                update(conn, """
+                    INSERT INTO cart_genre_totals (cartID, genre, quantity) VALUES (?, ?, ?)
+                    ON CONFLICT(cartID, genre) DO UPDATE SET quantity = quantity + excluded.quantity
+                """, cartID, line.genre(), delta);
+                update(conn, "DELETE FROM cart_genre_totals WHERE cartID = ? AND genre = ? AND quantity <= 0",
+                        cartID, line.genre());
+            }
+
+            CartTotals totals = getTotals(cartID);
+            double totalPrice = pricer.applyAsDouble(totals);
+            update(conn, "UPDATE shopping_cart SET totalPrice = ?, discountedTotal = NULL WHERE cartID = ?",
+                    totalPrice, cartID);
+
+            return new CartTotals(totals.cartID(), totals.userID(), totals.subtotal(), totals.itemCount(),
+                    totals.genreQuantities(), totalPrice);
+        });
+    }
+
+    // Writes inside a transaction must fail loudly so it rolls back
+    private static int update(Connection conn, String sql, Object... params) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            DatabaseManager.bind(ps, params);
+            return ps.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.bookstore.online_bookstore.model;
+
+import java.util.Map;
+
+/**
+ * CartTotals
+ * The running aggregates CartService keeps for one cart: subtotal at the
+ * prices items were added at, number of books, and number of books per
+ * genre. Reading them costs the same whatever the size of the cart.
+ * totalPrice is what CartService's pricer stored with the last change:
+ * the subtotal unless a discounting pricer was configured. The discounted
+ * total from the re-pricing job is kept apart, in discountedTotal.
+ */
+public record CartTotals(
+        int cartID,
+        int userID,
+        double subtotal,
+        int itemCount,
+        Map<String, Integer> genreQuantities,
+        double totalPrice
+) {
+
+    public boolean isEmpty() {
+        return itemCount == 0;
+    }
+}
@@ -0,0 +1,106 @@
+package com.bookstore.online_bookstore.model;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.bookstore.online_bookstore.db.DatabaseManager;
+
+/**
+ * CatalogVersion
+ * In-memory copy of the catalog_version row, which triggers bump on
+ * every insert, update and delete of books. Writes through Book refresh
+ * it straight away; a background refresh picks up changes made directly
+ * in the database. Reading it never touches SQLite, so conditional
+ * requests can be answered from memory.
+ */
+public class CatalogVersion {
+
+    public static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofSeconds(10);
+
+    /**
+     * version only ever goes up; lastModified is second-precision, like
+     * the HTTP header it ends up in.
+     */
+    public record Stamp(long version, Instant lastModified) {
+
+        public String etag() {
+            return "W/\"catalog-" + version + "\"";
+        }
+    }
+
+    private static CatalogVersion instance;
+
+    private final DatabaseManager db;
+    private final AtomicReference<Stamp> current = new AtomicReference<>(new Stamp(0, Instant.EPOCH));
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> refreshTask;
+
+    CatalogVersion(DatabaseManager db) {
+        this.db = db;
+    }
+
+    // ============================================================
+    // SINGLETON
+    // ============================================================
+    public static synchronized CatalogVersion getInstance() {
+        if (instance == null) {
+            instance = new CatalogVersion(DatabaseManager.getInstance());
+            instance.refresh();
+            instance.startAutoRefresh(DEFAULT_REFRESH_INTERVAL);
+        }
+        return instance;
+    }
+
+    // ============================================================
+    // VERSION
+    // ============================================================
+    public Stamp current() {
+        return current.get();
+    }
+
+    /**
+     * Re-reads the version row. On a database error the last known
+     * version stays in place.
+     */
+    public boolean refresh() {
+        Stamp stamp = db.queryOne(
+                "SELECT version, CAST(strftime('%s', modifiedAt) AS INTEGER) AS modified FROM catalog_version WHERE id = 1",
+                rs -> new Stamp(rs.getLong("version"), Instant.ofEpochSecond(rs.getLong("modified"))));
+
+        if (stamp == null) {
+            System.err.println("❌ Catalog version refresh failed, keeping v" + current().version());
+            return false;
+        }
+        // A refresh that raced with a newer one must not move the version back
+        current.accumulateAndGet(stamp, (old, fresh) -> fresh.version() >= old.version() ? fresh : old);
+        return true;
+    }
+
+    public synchronized void startAutoRefresh(Duration interval) {
+        if (refreshTask != null) {
+            refreshTask.cancel(false);
+        }
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "catalog-version-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        long millis = interval.toMillis();
+        refreshTask = scheduler.scheduleWithFixedDelay(this::refresh, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopAutoRefresh() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+            refreshTask = null;
+        }
+    }
+}
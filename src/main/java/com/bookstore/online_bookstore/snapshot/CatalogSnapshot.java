@@ -0,0 +1,393 @@
+package com.bookstore.online_bookstore.snapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import com.bookstore.online_bookstore.model.Book;
+
+/**
+ * CatalogSnapshot
+ * Read-only, memory-mapped copy of the books table in a compact binary
+ * file. Opening one costs a header check, not a table scan, so lookups
+ * and ISBN-ordered listings can be served the moment the app starts.
+ *
+ *   header   64 bytes: magic, format, catalog version, written-at,
+ *            book count, record size, offsets of the two sections below
+ *   records  one fixed-width RECORD_SIZE record per book, sorted by ISBN
+ *   strings  pool of length-prefixed UTF-8 strings the records point at;
+ *            short values (genres, languages, publishers...) are stored once
+ *
+ * Sorted fixed-width records make a lookup a binary search that compares
+ * raw bytes in the mapping; only the book that is found gets decoded.
+ */
+public final class CatalogSnapshot {
+
+    static final int MAGIC = 0x424B534E; // "BKSN"
+    static final int FORMAT = 1;
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_SIZE = 64;
+
+    // Strings up to this many chars are deduplicated in the pool
+    private static final int DEDUPE_MAX_LENGTH = 64;
+    private static final int NULL_STRING = -1;
+
+    // Record layout: ten string references, then the numeric fields
+    private static final int ISBN = 0;
+    private static final int COVER_IMAGE_URL = 4;
+    private static final int TITLE = 8;
+    private static final int AUTHOR = 12;
+    private static final int PUBLISHER = 16;
+    private static final int LANGUAGE = 20;
+    private static final int TYPE = 24;
+    private static final int GENRE = 28;
+    private static final int STATUS = 32;
+    private static final int DESCRIPTION = 36;
+    private static final int PUBLICATION_YEAR = 40;
+    private static final int PAGE_COUNT = 44;
+    private static final int STOCK = 48;
+    private static final int PRICE = 52;
+    private static final int FLAGS = 60;
+
+    private static final byte FLAG_PROMO = 1;
+
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final long catalogVersion;
+    private final Instant writtenAt;
+    private final int size;
+    private final int records;
+    private final int strings;
+
+    private CatalogSnapshot(Path file, ByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a catalog snapshot: " + file);
+        }
+        if (buffer.getInt(4) != FORMAT) {
+            throw new IOException("Unsupported snapshot format " + buffer.getInt(4) + ": " + file);
+        }
+        this.file = file;
+        this.buffer = buffer;
+        this.catalogVersion = buffer.getLong(8);
+        this.writtenAt = Instant.ofEpochMilli(buffer.getLong(16));
+        this.size = buffer.getInt(24);
+        this.records = buffer.getInt(32);
+        this.strings = buffer.getInt(36);
+        int poolLength = buffer.getInt(40);
+
+        if (buffer.getInt(28) != RECORD_SIZE || size < 0 || records != HEADER_SIZE
+                || strings != records + (long) size * RECORD_SIZE
+                || (long) strings + poolLength != buffer.capacity()) {
+            throw new IOException("Truncated or corrupt snapshot: " + file);
+        }
+    }
+
+    // ============================================================
+    // OPEN
+    // ============================================================
+    /**
+     * Maps file read-only. Pages are loaded by the OS as they are first
+     * touched, so this returns immediately whatever the catalog size.
+     */
+    public static CatalogSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot larger than 2 GB: " + file);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            return new CatalogSnapshot(file, mapped);
+        }
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * Catalog version (see CatalogVersion) the books were read at.
+     */
+    public long catalogVersion() {
+        return catalogVersion;
+    }
+
+    public Instant writtenAt() {
+        return writtenAt;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long byteSize() {
+        return buffer.capacity();
+    }
+
+    // ============================================================
+    // READ
+    // ============================================================
+    /**
+     * Book with this ISBN, or null if the snapshot has none.
+     */
+    public Book get(String isbn) {
+        if (isbn == null) return null;
+        int index = indexOf(isbn.getBytes(StandardCharsets.UTF_8));
+        return index >= 0 ? book(index) : null;
+    }
+
+    /**
+     * Up to limit books with an ISBN after afterIsbn (null for the
+     * start), in ISBN order.
+     */
+    public List<Book> listAfter(String afterIsbn, int limit) {
+        int from = 0;
+        if (afterIsbn != null) {
+            int index = indexOf(afterIsbn.getBytes(StandardCharsets.UTF_8));
+            from = index >= 0 ? index + 1 : -index - 1;
+        }
+        int to = (int) Math.min(size, (long) from + limit);
+        List<Book> books = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            books.add(book(i));
+        }
+        return books;
+    }
+
+    public void forEach(Consumer<Book> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(book(i));
+        }
+    }
+
+    Book book(int index) {
+        int record = records + index * RECORD_SIZE;
+        Book book = new Book(
+                string(record + ISBN),
+                string(record + COVER_IMAGE_URL),
+                string(record + TITLE),
+                string(record + AUTHOR),
+                string(record + PUBLISHER),
+                buffer.getInt(record + PUBLICATION_YEAR),
+                string(record + LANGUAGE),
+                buffer.getInt(record + PAGE_COUNT),
+                string(record + TYPE),
+                string(record + GENRE));
+        book.setStatus(string(record + STATUS));
+        book.setPromo((buffer.get(record + FLAGS) & FLAG_PROMO) != 0);
+        book.setPrice(buffer.getDouble(record + PRICE));
+        book.setStock(buffer.getInt(record + STOCK));
+        book.setDescription(string(record + DESCRIPTION));
+        return book;
+    }
+
+    // Binary search on the raw UTF-8 bytes, the order SQLite sorted them in;
+    // returns -(insertion point) - 1 when the ISBN is absent
+    private int indexOf(byte[] isbn) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareIsbn(mid, isbn);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private int compareIsbn(int index, byte[] key) {
+        int offset = buffer.getInt(records + index * RECORD_SIZE + ISBN);
+        int position = strings + offset;
+        int length = buffer.getInt(position);
+        int n = Math.min(length, key.length);
+        for (int i = 0; i < n; i++) {
+            int cmp = Integer.compare(buffer.get(position + 4 + i) & 0xFF, key[i] & 0xFF);
+            if (cmp != 0) return cmp;
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private String string(int field) {
+        int offset = buffer.getInt(field);
+        if (offset == NULL_STRING) return null;
+        int position = strings + offset;
+        int length = buffer.getInt(position);
+        byte[] bytes = new byte[length];
+        buffer.get(position + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // ============================================================
+    // WRITE
+    // ============================================================
+    /**
+     * Source of the books to snapshot: must pass every book to the
+     * consumer in ascending ISBN order (as ORDER BY isbn returns them).
+     */
+    @FunctionalInterface
+    public interface BookSource {
+        void forEach(Consumer<Book> action);
+    }
+
+    /**
+     * Writes books, stamped with catalogVersion, to target. The file is
+     * built next to target and moved into place, so readers never see a
+     * half-written snapshot.
+     */
+    public static void write(Path target, long catalogVersion, BookSource books) throws IOException {
+        Path dir = target.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+
+        Path temp = Files.createTempFile(dir, target.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                // Records go straight to the file; only the string pool is held in memory
+                channel.position(HEADER_SIZE);
+                StringPool pool = new StringPool();
+                ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+                int[] count = { 0 };
+                String[] previous = { null };
+
+                try {
+                    books.forEach(book -> {
+                        if (previous[0] != null && compareUtf8(previous[0], book.getIsbn()) >= 0) {
+                            throw new IllegalArgumentException("Books must come in ascending ISBN order: "
+                                    + previous[0] + " then " + book.getIsbn());
+                        }
+                        previous[0] = book.getIsbn();
+                        encode(book, pool, record);
+                        try {
+                            writeFully(channel, record.clear());
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        count[0]++;
+                    });
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+
+                long recordBytes = (long) count[0] * RECORD_SIZE;
+                if (HEADER_SIZE + recordBytes + pool.size() > Integer.MAX_VALUE) {
+                    throw new IOException("Catalog too large for one snapshot file");
+                }
+                writeFully(channel, ByteBuffer.wrap(pool.bytes.toByteArray()));
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(0, MAGIC);
+                header.putInt(4, FORMAT);
+                header.putLong(8, catalogVersion);
+                header.putLong(16, System.currentTimeMillis());
+                header.putInt(24, count[0]);
+                header.putInt(28, RECORD_SIZE);
+                header.putInt(32, HEADER_SIZE);
+                header.putInt(36, (int) (HEADER_SIZE + recordBytes));
+                header.putInt(40, pool.size());
+                channel.position(0);
+                writeFully(channel, header);
+                channel.force(false);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void encode(Book book, StringPool pool, ByteBuffer record) {
+        record.clear();
+        record.putInt(ISBN, pool.add(book.getIsbn()));
+        record.putInt(COVER_IMAGE_URL, pool.add(book.getCoverImageUrl()));
+        record.putInt(TITLE, pool.add(book.getTitle()));
+        record.putInt(AUTHOR, pool.add(book.getAuthor()));
+        record.putInt(PUBLISHER, pool.add(book.getPublisher()));
+        record.putInt(LANGUAGE, pool.add(book.getLanguage()));
+        record.putInt(TYPE, pool.add(book.getType()));
+        record.putInt(GENRE, pool.add(book.getGenre()));
+        record.putInt(STATUS, pool.add(book.getStatus()));
+        record.putInt(DESCRIPTION, pool.add(book.getDescription()));
+        record.putInt(PUBLICATION_YEAR, book.getPublicationYear());
+        record.putInt(PAGE_COUNT, book.getPageCount());
+        record.putInt(STOCK, book.getStock());
+        record.putDouble(PRICE, book.getPrice());
+        record.put(FLAGS, book.isPromo() ? FLAG_PROMO : 0);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            channel.write(data);
+        }
+    }
+
+    private static int compareUtf8(String a, String b) {
+        return Arrays.compareUnsigned(
+                a.getBytes(StandardCharsets.UTF_8), b.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * True when both books hold the same values in every column the
+     * snapshot stores.
+     */
+    static boolean sameBook(Book a, Book b) {
+        return Objects.equals(a.getIsbn(), b.getIsbn())
+                && Objects.equals(a.getCoverImageUrl(), b.getCoverImageUrl())
+                && Objects.equals(a.getTitle(), b.getTitle())
+                && Objects.equals(a.getAuthor(), b.getAuthor())
+                && Objects.equals(a.getPublisher(), b.getPublisher())
+                && a.getPublicationYear() == b.getPublicationYear()
+                && Objects.equals(a.getLanguage(), b.getLanguage())
+                && a.getPageCount() == b.getPageCount()
+                && Objects.equals(a.getType(), b.getType())
+                && Objects.equals(a.getGenre(), b.getGenre())
+                && Objects.equals(a.getStatus(), b.getStatus())
+                && a.isPromo() == b.isPromo()
+                && Double.compare(a.getPrice(), b.getPrice()) == 0
+                && a.getStock() == b.getStock()
+                && Objects.equals(a.getDescription(), b.getDescription());
+    }
+
+    // Length-prefixed UTF-8 strings, short ones stored once
+    private static final class StringPool {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final Map<String, Integer> offsets = new HashMap<>();
+        private final ByteBuffer length = ByteBuffer.allocate(4);
+
+        int add(String value) {
+            if (value == null) return NULL_STRING;
+            boolean dedupe = value.length() <= DEDUPE_MAX_LENGTH;
+            if (dedupe) {
+                Integer known = offsets.get(value);
+                if (known != null) return known;
+            }
+            int offset = bytes.size();
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            bytes.write(length.putInt(0, utf8.length).array(), 0, 4);
+            bytes.write(utf8, 0, utf8.length);
+            if (dedupe) offsets.put(value, offset);
+            return offset;
+        }
+
+        int size() {
+            return bytes.size();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.bookstore.online_bookstore.snapshot;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.bookstore.online_bookstore.model.BookExport;
+import com.bookstore.online_bookstore.model.CatalogVersion;
+
+/**
+ * CatalogSnapshots
+ * Keeps the shared CatalogSnapshot: maps the file written by the last
+ * run at startup, checks it row by row against SQLite in the background,
+ * and rewrites it periodically once the catalog has moved on.
+ *
+ * A snapshot is only handed out while its catalog version is the current
+ * one, so any write through Book (or a direct one, once CatalogVersion
+ * notices it) sends reads back to SQLite until the next rewrite.
+ */
+public class CatalogSnapshots {
+
+    public static final Duration DEFAULT_WRITE_INTERVAL = Duration.ofMinutes(15);
+
+    public enum Verification { NONE, PENDING, VERIFIED, FAILED }
+
+    private static CatalogSnapshots instance;
+
+    private final Path file;
+    private volatile CatalogSnapshot snapshot;
+    private volatile Verification verification = Verification.NONE;
+    private ScheduledExecutorService scheduler;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong stale = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong writeFailures = new AtomicLong();
+
+    public CatalogSnapshots(Path file) {
+        this.file = file;
+    }
+
+    // ============================================================
+    // SINGLETON
+    // ============================================================
+    public static synchronized CatalogSnapshots getInstance() {
+        if (instance == null) {
+            instance = new CatalogSnapshots(Paths.get("catalog.snapshot"));
+        }
+        return instance;
+    }
+
+    /**
+     * Replaces the shared instance, stopping the old one's background work.
+     */
+    public static synchronized void configure(Path file) {
+        if (instance != null) {
+            instance.stop();
+        }
+        instance = new CatalogSnapshots(file);
+    }
+
+    // ============================================================
+    // READ
+    // ============================================================
+    /**
+     * The snapshot, if it matches the current catalog version and has
+     * not failed verification; otherwise null and the caller reads SQLite.
+     */
+    public CatalogSnapshot current() {
+        CatalogSnapshot current = snapshot;
+        if (current == null || verification == Verification.FAILED) return null;
+        if (current.catalogVersion() != CatalogVersion.getInstance().current().version()) {
+            stale.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return current;
+    }
+
+    // ============================================================
+    // LIFECYCLE
+    // ============================================================
+    /**
+     * Maps the snapshot left by the previous run, if there is one, and
+     * verifies it on a background thread; then keeps it fresh every
+     * writeInterval. Returns whether a snapshot was loaded.
+     */
+    public synchronized boolean start(Duration writeInterval) {
+        boolean loaded = load();
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "catalog-snapshot");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        if (loaded) {
+            scheduler.execute(this::verify);
+        }
+        long millis = writeInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::writeIfStale, loaded ? millis : 0, millis, TimeUnit.MILLISECONDS);
+        return loaded;
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    boolean load() {
+        try {
+            snapshot = CatalogSnapshot.open(file);
+            verification = Verification.PENDING;
+            System.out.println("📦 Catalog snapshot mapped: " + snapshot.size() + " books, v"
+                    + snapshot.catalogVersion() + " (" + file + ")");
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            System.err.println("⚠️ Ignoring catalog snapshot " + file + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Checks the snapshot against SQLite. One behind the catalog version
+     * is simply stale. One at the current version has every row compared
+     * too: triggers keep the version honest for writes to this database,
+     * but not for a database file restored or swapped underneath us.
+     * Either way a mismatch retires the snapshot and writes a new one.
+     */
+    public boolean verify() {
+        CatalogSnapshot checked = snapshot;
+        if (checked == null) return false;
+
+        boolean verified = checked.catalogVersion() == CatalogVersion.getInstance().current().version()
+                && sameRows(checked);
+        if (snapshot == checked) {
+            verification = verified ? Verification.VERIFIED : Verification.FAILED;
+        }
+        if (!verified) {
+            System.err.println("⚠️ Catalog snapshot " + file + " is out of date, rewriting it");
+            writeIfStale();
+        }
+        return verified;
+    }
+
+    private static boolean sameRows(CatalogSnapshot checked) {
+        int[] index = { 0 };
+        boolean[] same = { true };
+        try {
+            new BookExport().forEach(BookExport.Filter.ALL, BookExport.DEFAULT_PAGE_SIZE, book -> {
+                if (same[0] && (index[0] >= checked.size() || !CatalogSnapshot.sameBook(book, checked.book(index[0])))) {
+                    same[0] = false;
+                }
+                index[0]++;
+            });
+        } catch (IllegalStateException e) {
+            System.err.println("⚠️ Catalog snapshot check failed: " + e.getMessage());
+            return false;
+        }
+        return same[0] && index[0] == checked.size();
+    }
+
+    /**
+     * Writes a new snapshot unless the current one is up to date, then
+     * maps it in place of the old one.
+     */
+    public synchronized boolean writeIfStale() {
+        CatalogVersion catalogVersion = CatalogVersion.getInstance();
+        catalogVersion.refresh();
+        // Read before the scan: a write during it leaves the snapshot
+        // looking stale rather than claiming a version it doesn't hold
+        long version = catalogVersion.current().version();
+
+        CatalogSnapshot current = snapshot;
+        if (current != null && current.catalogVersion() == version && verification != Verification.FAILED) {
+            return false;
+        }
+
+        try {
+            BookExport export = new BookExport();
+            CatalogSnapshot.write(file, version,
+                    action -> export.forEachComplete(BookExport.DEFAULT_PAGE_SIZE, action));
+            snapshot = CatalogSnapshot.open(file);
+            verification = Verification.VERIFIED; // just read from the database
+            writes.incrementAndGet();
+            return true;
+        } catch (IOException | RuntimeException e) {
+            writeFailures.incrementAndGet();
+            System.err.println("❌ Catalog snapshot write failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // ============================================================
+    // METRICS
+    // ============================================================
+    public Stats getStats() {
+        CatalogSnapshot current = snapshot;
+        return new Stats(file.toString(), verification,
+                current != null ? current.catalogVersion() : -1,
+                current != null ? current.size() : 0,
+                current != null ? current.byteSize() : 0,
+                current != null ? current.writtenAt().toString() : null,
+                hits.get(), stale.get(), writes.get(), writeFailures.get());
+    }
+
+    /**
+     * hits: reads served from the snapshot; stale: reads that found it
+     * behind the catalog and went to SQLite instead.
+     */
+    public record Stats(String file, Verification verification, long catalogVersion, int books, long bytes,
+            String writtenAt, long hits, long stale, long writes, long writeFailures) {}
+}
@@ -0,0 +1,33 @@
+package com.bookstore.online_bookstore.snapshot;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.bookstore.online_bookstore.db.DatabaseManager;
+
+/**
+ * SnapshotConfig
+ * Maps the catalog snapshot from the previous run once the database is
+ * migrated, and schedules its background verification and rewrites
+ */
+@Configuration
+@ConditionalOnProperty(name = "bookstore.snapshot.enabled", havingValue = "true", matchIfMissing = true)
+public class SnapshotConfig {
+
+    @Bean(destroyMethod = "stop")
+    public CatalogSnapshots catalogSnapshots(
+            DatabaseManager db,
+            @Value("${bookstore.snapshot.file:catalog.snapshot}") String file,
+            @Value("${bookstore.snapshot.write-interval:15m}") Duration writeInterval
+    ) {
+        CatalogSnapshots.configure(Paths.get(file));
+        CatalogSnapshots snapshots = CatalogSnapshots.getInstance();
+        snapshots.start(writeInterval);
+        return snapshots;
+    }
+}
@@ -0,0 +1,30 @@
+package com.bookstore.online_bookstore.view;
+
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.thymeleaf.spring6.view.ThymeleafViewResolver;
+
+/**
+ * PageCacheConfig
+ * Sizes the rendered-page cache from application properties and puts
+ * it in front of Thymeleaf
+ */
+@Configuration
+@ConditionalOnProperty(name = "bookstore.cache.pages.enabled", havingValue = "true", matchIfMissing = true)
+public class PageCacheConfig {
+
+    @Bean
+    public PageCachingViewResolver pageCachingViewResolver(
+            ThymeleafViewResolver thymeleafViewResolver,
+            @Value("${bookstore.cache.pages.max-size:16MB}") DataSize maxSize,
+            @Value("${bookstore.cache.pages.views:index}") Set<String> viewNames
+    ) {
+        RenderedPageCache.configure(maxSize.toBytes(), viewNames);
+        return new PageCachingViewResolver(thymeleafViewResolver);
+    }
+}
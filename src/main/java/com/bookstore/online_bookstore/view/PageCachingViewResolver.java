@@ -0,0 +1,81 @@
+package com.bookstore.online_bookstore.view;
+
+import java.util.Locale;
+import java.util.Map;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * PageCachingViewResolver
+ * Sits in front of the Thymeleaf view resolver. Views that
+ * RenderedPageCache may cache are wrapped so a repeat render with the
+ * same model is served from stored bytes; every other view name is left
+ * to Thymeleaf untouched.
+ */
+public class PageCachingViewResolver implements ViewResolver, Ordered {
+
+    private final ViewResolver templates;
+
+    public PageCachingViewResolver(ViewResolver templates) {
+        this.templates = templates;
+    }
+
+    @Override
+    public View resolveViewName(String viewName, Locale locale) throws Exception {
+        RenderedPageCache cache = RenderedPageCache.getInstance();
+        if (!cache.isCacheable(viewName)) return null;
+
+        View view = templates.resolveViewName(viewName, locale);
+        return view != null ? new CachedView(viewName, locale, view) : null;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private record CachedView(String viewName, Locale locale, View template) implements View {
+
+        @Override
+        public String getContentType() {
+            return template.getContentType();
+        }
+
+        @Override
+        public void render(Map<String, ?> model, HttpServletRequest request, HttpServletResponse response)
+                throws Exception {
+            RenderedPageCache cache = RenderedPageCache.getInstance();
+            String fingerprint = RenderedPageCache.fingerprint(model != null ? model : Map.of());
+            if (fingerprint == null) {
+                cache.recordBypass();
+                template.render(model, request, response);
+                return;
+            }
+
+            RenderedPageCache.Key key = new RenderedPageCache.Key(viewName, locale, fingerprint);
+            RenderedPageCache.Page page = cache.get(key);
+            if (page != null) {
+                response.setContentType(page.contentType());
+                response.setContentLength(page.body().length);
+                response.getOutputStream().write(page.body());
+                return;
+            }
+
+            long version = cache.catalogVersion();
+            ContentCachingResponseWrapper capture = new ContentCachingResponseWrapper(response);
+            template.render(model, request, capture);
+            capture.flushBuffer();
+            if (capture.getStatus() == HttpServletResponse.SC_OK) {
+                cache.put(key, new RenderedPageCache.Page(capture.getContentAsByteArray(), capture.getContentType()),
+                        version);
+            }
+            capture.copyBodyToResponse();
+        }
+    }
+}
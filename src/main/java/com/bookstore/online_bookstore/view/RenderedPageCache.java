@@ -0,0 +1,218 @@
+package com.bookstore.online_bookstore.view;
+
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.temporal.TemporalAccessor;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.bookstore.online_bookstore.model.Book;
+import com.bookstore.online_bookstore.model.CatalogVersion;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * RenderedPageCache
+ * Finished HTML of catalog pages, keyed by view name, locale and a
+ * fingerprint of the model, and bounded by total size in bytes. Every
+ * page is rendered from catalog data, so the whole cache is dropped as
+ * soon as the catalog version moves (saveBook, updateBook, imports...).
+ *
+ * Only views listed at configuration time are cached: a template that
+ * reads the session or request parameters would otherwise be served to
+ * the wrong visitor.
+ */
+public class RenderedPageCache {
+
+    public record Key(String viewName, Locale locale, String fingerprint) {}
+
+    public record Page(byte[] body, String contentType) {}
+
+    private static volatile RenderedPageCache instance = new RenderedPageCache(16L << 20, Set.of("index"));
+
+    private final Cache<Key, Page> cache;
+    private final Set<String> viewNames;
+    private final AtomicLong catalogVersion = new AtomicLong(-1);
+    private final LongAdder bypasses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public RenderedPageCache(long maxBytes, Set<String> viewNames) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, Page page) -> page.body().length)
+                .recordStats()
+                .build();
+        this.viewNames = Set.copyOf(viewNames);
+    }
+
+    public static RenderedPageCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Replaces the shared cache, e.g. with sizes from application config.
+     */
+    public static void configure(long maxBytes, Set<String> viewNames) {
+        instance = new RenderedPageCache(maxBytes, viewNames);
+    }
+
+    // ============================================================
+    // LOOKUP
+    // ============================================================
+    public boolean isCacheable(String viewName) {
+        return viewNames.contains(viewName);
+    }
+
+    public Page get(Key key) {
+        catalogVersion();
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Stores page unless the catalog has changed since renderedAt, the
+     * catalogVersion() read before rendering started.
+     */
+    public void put(Key key, Page page, long renderedAt) {
+        if (catalogVersion() == renderedAt) {
+            cache.put(key, page);
+        }
+    }
+
+    /**
+     * Current catalog version; the first call after it moves drops
+     * every cached page.
+     */
+    public long catalogVersion() {
+        long version = CatalogVersion.getInstance().current().version();
+        long seen = catalogVersion.get();
+        if (version != seen && catalogVersion.compareAndSet(seen, version)) {
+            if (seen != -1) invalidations.increment();
+            cache.invalidateAll();
+        }
+        return version;
+    }
+
+    /**
+     * Counts a render of a cacheable view whose model could not be
+     * fingerprinted, so it went straight to the template engine.
+     */
+    public void recordBypass() {
+        bypasses.increment();
+    }
+
+    // ============================================================
+    // INVALIDATION
+    // ============================================================
+    public void clear() {
+        invalidations.increment();
+        cache.invalidateAll();
+    }
+
+    // ============================================================
+    // MODEL FINGERPRINT
+    // ============================================================
+    /**
+     * SHA-256 of the model's contents, or null when it holds something
+     * whose contents can't be read reliably (the page is then rendered
+     * without the cache). Spring's own entries, such as binding results,
+     * are left out.
+     */
+    public static String fingerprint(Map<String, ?> model) {
+        StringBuilder canonical = new StringBuilder();
+        for (Map.Entry<String, ?> entry : new TreeMap<>(model).entrySet()) {
+            if (entry.getKey().startsWith("org.springframework.")) continue;
+            canonical.append(entry.getKey()).append('=');
+            if (!append(canonical, entry.getValue())) return null;
+            canonical.append(';');
+        }
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    private static boolean append(StringBuilder out, Object value) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof CharSequence || value instanceof Number || value instanceof Boolean
+                || value instanceof Character || value instanceof Enum<?> || value instanceof TemporalAccessor
+                || value instanceof Locale || value instanceof UUID) {
+            // Length prefix keeps "a,b" apart from two values "a" and "b"
+            String text = value.toString();
+            out.append(value.getClass().getSimpleName()).append(':').append(text.length()).append(':').append(text);
+        } else if (value instanceof Book book) {
+            return appendAll(out, "Book", book.getIsbn(), book.getTitle(), book.getAuthor(), book.getPublisher(),
+                    book.getPublicationYear(), book.getLanguage(), book.getPageCount(), book.getType(),
+                    book.getGenre(), book.getStatus(), book.isPromo(), book.getPrice(), book.getStock(),
+                    book.getDescription(), book.getCoverImageUrl());
+        } else if (value instanceof Record record) {
+            RecordComponent[] components = record.getClass().getRecordComponents();
+            Object[] values = new Object[components.length];
+            try {
+                for (int i = 0; i < components.length; i++) {
+                    values[i] = components[i].getAccessor().invoke(record);
+                }
+            } catch (ReflectiveOperationException e) {
+                return false;
+            }
+            return appendAll(out, record.getClass().getName(), values);
+        } else if (value instanceof Collection<?> items) {
+            return appendAll(out, "List", items.toArray());
+        } else if (value instanceof Object[] items) {
+            return appendAll(out, "List", items);
+        } else if (value instanceof Map<?, ?> map) {
+            out.append("Map{");
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!append(out, entry.getKey())) return false;
+                out.append("=>");
+                if (!append(out, entry.getValue())) return false;
+                out.append(',');
+            }
+            out.append('}');
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean appendAll(StringBuilder out, String type, Object... values) {
+        out.append(type).append('[');
+        for (Object value : values) {
+            if (!append(out, value)) return false;
+            out.append(',');
+        }
+        out.append(']');
+        return true;
+    }
+
+    // ============================================================
+    // METRICS
+    // ============================================================
+    public Stats getStats() {
+        CacheStats stats = cache.stats();
+        return new Stats(cache.estimatedSize(), cache.policy().eviction().orElseThrow().weightedSize().orElse(0),
+                stats.hitCount(), stats.missCount(), bypasses.sum(), stats.evictionCount(),
+                invalidations.sum(), stats.hitRate());
+    }
+
+    /**
+     * bypasses are renders of a cacheable view whose model couldn't be
+     * fingerprinted; invalidations count whole-cache drops.
+     */
+    public record Stats(long pages, long bytes, long hits, long misses, long bypasses, long evictions,
+                        long invalidations, double hitRate) {}
+}
@@ -0,0 +1,98 @@
+package com.bookstore.online_bookstore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.bookstore.online_bookstore.db.DatabaseManager;
+import com.bookstore.online_bookstore.model.Book;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CatalogControllerTests {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	DatabaseManager db;
+
+	@Test
+	void unchangedCatalogIsNotModified() throws Exception {
+		String isbn = "C" + System.nanoTime();
+		Book book = new Book(isbn, null, "Conditional Requests", "Author", null, 2020, "English", 100, "Paperback", "Computing");
+		book.setPrice(10.0);
+		Book.saveBooks(List.of(book));
+
+		String etag = mvc.perform(get("/api/books/{isbn}", isbn))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.title").value("Conditional Requests"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(etag).isNotNull();
+
+		long calls = sqlCalls();
+		mvc.perform(get("/api/books/{isbn}", isbn).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+		mvc.perform(get("/api/books").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+		assertThat(sqlCalls()).isEqualTo(calls);
+
+		book.setTitle("Conditional Requests, 2nd Edition");
+		book.updateBook(book);
+
+		mvc.perform(get("/api/books/{isbn}", isbn).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.title").value("Conditional Requests, 2nd Edition"));
+	}
+
+	@Test
+	void exportStreamsFilteredRows() throws Exception {
+		String genre = "Export" + System.nanoTime();
+		Book first = new Book(genre + "-1", null, "Commas, \"Quotes\"", "Author", null, 2020, "English", 100, "Paperback", genre);
+		Book second = new Book(genre + "-2", null, "Plain", "Author", null, 2021, "English", 100, "Paperback", genre);
+		Book.saveBooks(List.of(first, second));
+
+		MvcResult csv = mvc.perform(get("/api/books/export").param("format", "csv").param("genre", genre))
+				.andReturn();
+		String body = mvc.perform(asyncDispatch(csv))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv;charset=UTF-8"))
+				.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+		assertThat(body.split("\r\n")).hasSize(3);
+		assertThat(body).contains(genre + "-1,\"Commas, \"\"Quotes\"\"\",Author");
+
+		MvcResult jsonl = mvc.perform(get("/api/books/export").param("genre", genre)
+						.param("updatedSince", "2000-01-01").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+				.andReturn();
+		byte[] gzipped = mvc.perform(asyncDispatch(jsonl))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+				.andReturn().getResponse().getContentAsByteArray();
+		String lines = new String(new GZIPInputStream(new ByteArrayInputStream(gzipped)).readAllBytes(),
+				StandardCharsets.UTF_8);
+		assertThat(lines.split("\n")).hasSize(2).allMatch(line -> line.contains("\"genre\":\"" + genre + "\""));
+
+		mvc.perform(get("/api/books/export").param("updatedSince", "yesterday"))
+				.andExpect(status().isBadRequest());
+	}
+
+	private long sqlCalls() {
+		return db.getTracer().getStatementStats().stream().mapToLong(s -> s.calls()).sum();
+	}
+}
@@ -0,0 +1,81 @@
+package com.bookstore.online_bookstore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.bookstore.online_bookstore.covers.CoverStore;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CoverControllerTests {
+
+	@Autowired
+	MockMvc mvc;
+
+	@TempDir
+	Path dir;
+
+	@AfterEach
+	void tearDown() {
+		CoverStore.configure(Path.of("covers"), CoverStore.DEFAULT_THUMBNAIL_WIDTH, CoverStore.DEFAULT_THUMBNAIL_HEIGHT);
+	}
+
+	@Test
+	void servesRangesAndThumbnails() throws Exception {
+		CoverStore.configure(dir.resolve("store"), 100, 150);
+		Path source = dir.resolve("cover.png");
+		ImageIO.write(new BufferedImage(600, 900, BufferedImage.TYPE_INT_RGB), "png", source.toFile());
+		byte[] original = Files.readAllBytes(source);
+
+		CoverStore store = CoverStore.getInstance();
+		assertThat(store.importOriginal("9780000000001", source)).isTrue();
+		assertThat(store.generateThumbnail("9780000000001")).isTrue();
+
+		String etag = mvc.perform(get("/covers/9780000000001"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/png"))
+				.andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, original.length))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(etag).startsWith("\"");
+
+		byte[] part = mvc.perform(get("/covers/9780000000001").header(HttpHeaders.RANGE, "bytes=10-19"))
+				.andExpect(status().isPartialContent())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-19/" + original.length))
+				.andReturn().getResponse().getContentAsByteArray();
+		assertThat(part).containsExactly(Arrays.copyOfRange(original, 10, 20));
+
+		mvc.perform(get("/covers/9780000000001").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+		mvc.perform(get("/covers/9780000000001").header(HttpHeaders.RANGE, "bytes=" + original.length + "-"))
+				.andExpect(status().isRequestedRangeNotSatisfiable());
+
+		byte[] thumbnail = mvc.perform(get("/covers/9780000000001/thumbnail"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/jpeg"))
+				.andReturn().getResponse().getContentAsByteArray();
+		BufferedImage image = ImageIO.read(new ByteArrayInputStream(thumbnail));
+		assertThat(image.getWidth()).isEqualTo(100);
+		assertThat(image.getHeight()).isEqualTo(150);
+
+		mvc.perform(get("/covers/9780000000002")).andExpect(status().isNotFound());
+	}
+}
@@ -0,0 +1,156 @@
+package com.bookstore.online_bookstore.catalog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.bookstore.online_bookstore.model.Book;
+
+class CatalogStoreTests {
+
+	@Test
+	void putOverwritesByIsbnAndViewsReadTheColumns() {
+		CatalogStore store = new CatalogStore();
+		for (int i = 0; i < 5000; i++) {
+			store.put(book(i, "Publisher " + (i % 300)));
+		}
+		Book changed = book(42, null);
+		changed.setTitle("Renamed");
+		changed.setPromo(true);
+		changed.setPrice(9.99);
+		store.put(changed);
+
+		assertThat(store.size()).isEqualTo(5000);
+		Book found = store.get("ISBN-42");
+		assertThat(found.getTitle()).isEqualTo("Renamed");
+		assertThat(found.getPublisher()).isNull();
+		assertThat(found.isPromo()).isTrue();
+		assertThat(found.getPrice()).isEqualTo(9.99);
+		assertThat(store.get("ISBN-4999").getPublisher()).isEqualTo("Publisher " + (4999 % 300));
+		assertThat(store.get("ISBN-5000")).isNull();
+
+		// 300 publishers no longer fit in byte codes; earlier rows must survive the widening
+		assertThat(store.publisher.bytesPerRow()).isEqualTo(2);
+		assertThat(store.get("ISBN-7").getPublisher()).isEqualTo("Publisher 7");
+		assertThat(store.getStats().publishers()).isEqualTo(300);
+		assertThat(store.getStats().genres()).isEqualTo(3);
+
+		List<BookView> seen = new ArrayList<>();
+		List<String> isbns = new ArrayList<>();
+		store.forEach(view -> {
+			if (seen.isEmpty()) seen.add(view);
+			assertThat(view).isSameAs(seen.get(0));
+			isbns.add(view.getIsbn());
+		});
+		assertThat(isbns).hasSize(5000).doesNotHaveDuplicates();
+	}
+
+	@Test
+	void trimmedStoresGrowAgain() {
+		CatalogStore empty = new CatalogStore();
+		empty.trimToSize();
+		CatalogStore single = new CatalogStore();
+		single.put(book(0, "Publisher 0"));
+		single.trimToSize();
+
+		for (int i = 1; i <= 10; i++) {
+			empty.put(book(i, "Publisher " + i));
+			single.put(book(i, "Publisher " + i));
+		}
+
+		assertThat(empty.size()).isEqualTo(10);
+		assertThat(single.size()).isEqualTo(11);
+		assertThat(single.get("ISBN-0").getTitle()).isEqualTo("Title 0");
+		assertThat(empty.get("ISBN-10").getPublisher()).isEqualTo("Publisher 10");
+		assertThat(single.get("ISBN-10").getDescription()).isEqualTo("Description of book 10");
+	}
+
+	@Test
+	void browseFiltersAndCountsFacets() {
+		CatalogStore store = new CatalogStore();
+		for (int i = 0; i < 90; i++) {
+			store.put(book(i, null)); // genres cycle Fantasy, Poetry, History; authors cycle 0-49
+		}
+		Book moved = book(0, null);
+		moved.setGenre("Poetry");
+		store.put(moved);
+
+		CatalogStore.Browse fantasy = store.browse(Map.of(Facet.GENRE, Set.of("Fantasy")), 0, 10, 5);
+		assertThat(fantasy.total()).isEqualTo(29);
+		assertThat(fantasy.books()).hasSize(10).allMatch(book -> book.getGenre().equals("Fantasy"));
+		// A facet's counts ignore its own filter, the others' don't
+		assertThat(fantasy.facets().get(Facet.GENRE)).containsExactly(
+				new CatalogStore.FacetCount("Poetry", 31),
+				new CatalogStore.FacetCount("History", 30),
+				new CatalogStore.FacetCount("Fantasy", 29));
+		assertThat(fantasy.facets().get(Facet.LANGUAGE)).containsExactly(new CatalogStore.FacetCount("English", 29));
+		assertThat(fantasy.facets().get(Facet.AUTHOR)).hasSize(5);
+
+		CatalogStore.Browse combined = store.browse(Map.of(
+				Facet.GENRE, Set.of("Fantasy", "Poetry"), Facet.AUTHOR, Set.of("Author 1", "Author 50")), 1, 10, 5);
+		assertThat(combined.total()).isEqualTo(2); // books 1 (Poetry) and 51 (Fantasy); nobody is Author 50
+		assertThat(combined.books()).extracting(Book::getIsbn).containsExactly("ISBN-51");
+
+		assertThat(store.browse(Map.of(Facet.TYPE, Set.of("Audiobook")), 0, 10, 5).total()).isZero();
+		assertThat(store.browse(Map.of(), 85, 10, 5).books()).hasSize(5);
+	}
+
+	@Test
+	void rowBitmapMatchesBitSetAcrossChunkFormats() {
+		Random random = new Random(3);
+		RowBitmap sparse = new RowBitmap();
+		RowBitmap dense = new RowBitmap();
+		BitSet sparseRows = new BitSet();
+		BitSet denseRows = new BitSet();
+		for (int i = 0; i < 60_000; i++) {
+			int row = random.nextInt(200_000);
+			sparse.add(row / 40);
+			sparseRows.set(row / 40);
+			dense.add(row);
+			denseRows.set(row);
+		}
+		for (int i = 0; i < 20_000; i++) {
+			int row = random.nextInt(200_000);
+			dense.remove(row);
+			denseRows.clear(row);
+		}
+
+		BitSet and = (BitSet) sparseRows.clone();
+		and.and(denseRows);
+		BitSet or = (BitSet) sparseRows.clone();
+		or.or(denseRows);
+		assertThat(dense.cardinality()).isEqualTo(denseRows.cardinality());
+		assertThat(sparse.andCardinality(dense)).isEqualTo(and.cardinality());
+		assertThat(rows(sparse.and(dense))).isEqualTo(and);
+		assertThat(rows(dense.or(sparse))).isEqualTo(or);
+		assertThat(dense.contains(denseRows.nextSetBit(0))).isTrue();
+		assertThat(dense.contains(denseRows.nextClearBit(0))).isFalse();
+	}
+
+	private static BitSet rows(RowBitmap bitmap) {
+		BitSet rows = new BitSet();
+		int[] last = { -1 };
+		bitmap.forEach(row -> {
+			assertThat(row).isGreaterThan(last[0]);
+			last[0] = row;
+			rows.set(row);
+			return true;
+		});
+		return rows;
+	}
+
+	private static Book book(int i, String publisher) {
+		Book book = new Book("ISBN-" + i, null, "Title " + i, "Author " + (i % 50), publisher, 1990 + i % 30,
+				"English", 100 + i, "Paperback", List.of("Fantasy", "Poetry", "History").get(i % 3));
+		book.setDescription("Description of book " + i);
+		book.setStock(i % 7);
+		return book;
+	}
+}
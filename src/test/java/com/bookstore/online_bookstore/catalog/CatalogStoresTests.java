@@ -0,0 +1,107 @@
+package com.bookstore.online_bookstore.catalog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.bookstore.online_bookstore.db.DatabaseManager;
+import com.bookstore.online_bookstore.model.CatalogVersion;
+
+@SpringBootTest
+class CatalogStoresTests {
+
+	@Autowired
+	DatabaseManager db;
+
+	@Test
+	void failedFirstLoadIsRetried() throws InterruptedException {
+		AtomicInteger attempts = new AtomicInteger();
+		CatalogStores stores = new CatalogStores(10) {
+			@Override
+			Loaded build() {
+				if (attempts.incrementAndGet() < 3) {
+					throw new IllegalStateException("Read 0 books but the table has 1");
+				}
+				return new Loaded(new CatalogStore(), CatalogVersion.getInstance().current().version(), "test");
+			}
+		};
+
+		stores.start();
+		try {
+			long deadline = System.currentTimeMillis() + 5_000;
+			while (stores.current() == null && System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+
+			assertThat(stores.current()).isNotNull();
+			assertThat(attempts.get()).isEqualTo(3);
+			assertThat(stores.getStats().failedLoads()).isEqualTo(2);
+			assertThat(stores.getStats().loads()).isEqualTo(1);
+		} finally {
+			stores.stop();
+		}
+	}
+
+	@Test
+	void failedRefreshReloadsInsteadOfAdvancing() throws InterruptedException {
+		AtomicInteger builds = new AtomicInteger();
+		CatalogStores stores = new CatalogStores(10) {
+			@Override
+			Loaded build() {
+				builds.incrementAndGet();
+				return new Loaded(new CatalogStore(), CatalogVersion.getInstance().current().version(), "test");
+			}
+		};
+
+		stores.start();
+		try {
+			awaitBuilds(builds, 1);
+
+			// Another thread takes the only permit, so the re-read is rejected
+			CountDownLatch holding = new CountDownLatch(1);
+			CountDownLatch release = new CountDownLatch(1);
+			Thread holder = new Thread(() -> {
+				try {
+					db.inTransaction(conn -> {
+						holding.countDown();
+						try {
+							release.await();
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+						return null;
+					});
+				} catch (Exception ignored) {}
+			});
+			db.enableBulkhead(1, 0, 100);
+			try {
+				holder.start();
+				holding.await();
+				stores.refresh(List.of("refresh-fails"));
+			} finally {
+				release.countDown();
+				holder.join();
+				db.disableBulkhead();
+			}
+
+			awaitBuilds(builds, 2);
+			assertThat(builds.get()).isEqualTo(2);
+			assertThat(stores.getStats().updates()).isZero();
+		} finally {
+			stores.stop();
+		}
+	}
+
+	private static void awaitBuilds(AtomicInteger builds, int count) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (builds.get() < count && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package com.bookstore.online_bookstore.covers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CoverStoreTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void importsLocalCoversOnlyFromTheDropDirectory() throws Exception {
+		Path drop = Files.createDirectories(dir.resolve("drop"));
+		Path inside = Files.createFile(drop.resolve("cover.png"));
+		Path outside = Files.createFile(dir.resolve("secret.png"));
+		Path link = Files.createSymbolicLink(drop.resolve("link.png"), outside);
+		CoverStore store = new CoverStore(dir.resolve("store"), drop, 100, 150);
+
+		assertThat(store.localSource("cover.png")).isEqualTo(inside);
+		assertThat(store.localSource(inside.toString())).isEqualTo(inside);
+		assertThat(store.localSource(inside.toUri().toString())).isEqualTo(inside);
+
+		assertThat(store.localSource(outside.toString())).isNull();
+		assertThat(store.localSource(outside.toUri().toString())).isNull();
+		assertThat(store.localSource("../secret.png")).isNull();
+		assertThat(store.localSource(link.toString())).isNull();
+		assertThat(store.localSource("missing.png")).isNull();
+		assertThat(store.localSource("https://example.com/cover.png")).isNull();
+	}
+
+	@Test
+	void noDropDirectoryMeansNoLocalImports() throws Exception {
+		Path file = Files.createFile(dir.resolve("cover.png"));
+		CoverStore store = new CoverStore(dir.resolve("store"), 100, 150);
+
+		assertThat(store.localSource(file.toString())).isNull();
+	}
+}
@@ -0,0 +1,70 @@
+package com.bookstore.online_bookstore.db;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class AfterCommitTests {
+
+	@Autowired
+	DatabaseManager db;
+
+	@Test
+	void runsOnlyOnceTheOuterTransactionCommits() throws Exception {
+		List<String> ran = new ArrayList<>();
+
+		db.inTransaction(conn -> {
+			db.afterCommit(() -> ran.add("outer"));
+			db.inTransaction(inner -> {
+				db.afterCommit(() -> ran.add("inner"));
+				return null;
+			});
+			assertThat(ran).isEmpty();
+			return null;
+		});
+
+		assertThat(ran).containsExactly("outer", "inner");
+	}
+
+	@Test
+	void droppedWhenTheirTransactionRollsBack() throws Exception {
+		List<String> ran = new ArrayList<>();
+
+		db.inTransaction(conn -> {
+			db.afterCommit(() -> ran.add("kept"));
+			try {
+				db.inTransaction(inner -> {
+					db.afterCommit(() -> ran.add("rolled back"));
+					throw new SQLException("inner failure");
+				});
+			} catch (SQLException expected) {
+				// only the savepoint is undone
+			}
+			return null;
+		});
+		assertThat(ran).containsExactly("kept");
+
+		assertThatThrownBy(() -> db.inTransaction(conn -> {
+			db.afterCommit(() -> ran.add("outer rolled back"));
+			throw new SQLException("outer failure");
+		})).isInstanceOf(SQLException.class);
+		assertThat(ran).containsExactly("kept");
+	}
+
+	@Test
+	void runsStraightAwayOutsideATransaction() {
+		List<String> ran = new ArrayList<>();
+
+		db.afterCommit(() -> ran.add("now"));
+
+		assertThat(ran).containsExactly("now");
+	}
+}
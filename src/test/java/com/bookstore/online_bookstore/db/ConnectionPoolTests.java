@@ -0,0 +1,82 @@
+package com.bookstore.online_bookstore.db;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ConnectionPoolTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void readersSeeCommittedWritesAndRejectUpdates() throws Exception {
+		ConnectionPool pool = new ConnectionPool("jdbc:sqlite:" + dir.resolve("pool.db"), 2, 1000);
+		try {
+			pool.withWriter(conn -> {
+				try (Statement stmt = conn.createStatement()) {
+					stmt.executeUpdate("CREATE TABLE t (v INTEGER)");
+					return stmt.executeUpdate("INSERT INTO t VALUES (42)");
+				}
+			});
+
+			int value = pool.withReader(conn -> {
+				try (Statement stmt = conn.createStatement();
+					 ResultSet rs = stmt.executeQuery("SELECT v FROM t")) {
+					return rs.next() ? rs.getInt(1) : -1;
+				}
+			});
+			assertThat(value).isEqualTo(42);
+
+			assertThatThrownBy(() -> pool.withReader(conn -> {
+				try (Statement stmt = conn.createStatement()) {
+					return stmt.executeUpdate("INSERT INTO t VALUES (1)");
+				}
+			})).isInstanceOf(java.sql.SQLException.class);
+
+			assertThat(pool.getStats().readAcquired()).isEqualTo(2);
+		} finally {
+			pool.close();
+		}
+	}
+
+	@Test
+	void writerWaitIsBounded() throws Exception {
+		ConnectionPool pool = new ConnectionPool("jdbc:sqlite:" + dir.resolve("pool.db"), 1, 100);
+		CountDownLatch holding = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Thread holder = new Thread(() -> {
+			try {
+				pool.withWriter(conn -> {
+					holding.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					return null;
+				});
+			} catch (Exception ignored) {}
+		});
+		try {
+			holder.start();
+			holding.await();
+
+			assertThatThrownBy(() -> pool.withWriter(conn -> null))
+					.isInstanceOf(SQLTimeoutException.class);
+			assertThat(pool.getStats().writeTimeouts()).isEqualTo(1);
+		} finally {
+			release.countDown();
+			holder.join();
+			pool.close();
+		}
+	}
+}
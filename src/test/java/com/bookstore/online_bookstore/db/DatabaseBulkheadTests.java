@@ -0,0 +1,72 @@
+package com.bookstore.online_bookstore.db;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+class DatabaseBulkheadTests {
+
+	@Test
+	void nestedCallsReuseThePermit() throws Exception {
+		DatabaseBulkhead bulkhead = new DatabaseBulkhead(1, 0, 100);
+
+		int result = bulkhead.call(() -> bulkhead.call(() -> 42));
+
+		assertThat(result).isEqualTo(42);
+		assertThat(bulkhead.getStats().admitted()).isEqualTo(1);
+		assertThat(bulkhead.getStats().active()).isZero();
+	}
+
+	@Test
+	void excessCallersQueueThenGetTurnedAway() throws Exception {
+		DatabaseBulkhead bulkhead = new DatabaseBulkhead(1, 1, 200);
+		CountDownLatch holding = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Thread holder = new Thread(() -> {
+			try {
+				bulkhead.call(() -> {
+					holding.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					return null;
+				});
+			} catch (Exception ignored) {}
+		});
+		Thread waiter = new Thread(() -> {
+			try {
+				bulkhead.call(() -> null);
+			} catch (Exception ignored) {}
+		});
+		try {
+			holder.start();
+			holding.await();
+			waiter.start();
+			while (bulkhead.getStats().queueDepth() == 0) {
+				Thread.onSpinWait();
+			}
+
+			assertThatThrownBy(() -> bulkhead.call(() -> null))
+					.isInstanceOf(SQLTransientConnectionException.class);
+
+			waiter.join();
+			assertThatThrownBy(() -> bulkhead.call(() -> null))
+					.isInstanceOf(SQLTimeoutException.class);
+
+			DatabaseBulkhead.Stats stats = bulkhead.getStats();
+			assertThat(stats.rejected()).isEqualTo(1);
+			assertThat(stats.timeouts()).isEqualTo(2);
+			assertThat(stats.maxQueueDepth()).isEqualTo(1);
+		} finally {
+			release.countDown();
+			holder.join();
+		}
+	}
+}
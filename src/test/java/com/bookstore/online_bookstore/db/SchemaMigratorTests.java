@@ -0,0 +1,42 @@
+package com.bookstore.online_bookstore.db;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class SchemaMigratorTests {
+
+	@Autowired
+	DatabaseManager db;
+
+	@Test
+	void startupAppliesEveryMigration() {
+		SchemaMigrator migrator = new SchemaMigrator(db);
+
+		assertThat(migrator.currentVersion()).isEqualTo(SchemaMigrator.MIGRATIONS.size());
+		assertThat(migrator.migrate()).isTrue();
+	}
+
+	@Test
+	void hotQueriesUseTheirIndexes() {
+		assertThat(new SchemaMigrator(db).verifyIndexes()).isEmpty();
+	}
+
+	@Test
+	void failedStatementRollsBackItsMigration() {
+		SchemaMigrator migrator = new SchemaMigrator(db, List.of(
+				Migration.sql(999, "Broken migration",
+						"CREATE TABLE broken_migration (id INTEGER)",
+						"CREATE TABLE missing_paren (id INTEGER")));
+
+		assertThat(migrator.migrate()).isFalse();
+		assertThat(migrator.currentVersion()).isEqualTo(SchemaMigrator.MIGRATIONS.size());
+		Boolean created = db.queryOne("SELECT 1 FROM sqlite_master WHERE name = 'broken_migration'", rs -> true);
+		assertThat(created).isNull();
+	}
+}
@@ -0,0 +1,45 @@
+package com.bookstore.online_bookstore.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import com.bookstore.online_bookstore.model.Book;
+
+class BookRecordParserTests {
+
+	@Test
+	void parsesQuotedCsvRecord() {
+		BookRecordParser parser = BookRecordParser.csv("ISBN,Title,Author,Genre,Price,Stock,Description");
+
+		Book book = parser.parse("978-0-306-40615-7,\"Dune, Part One\",Frank Herbert,Sci-Fi,12.5,3,\"says \"\"hi\"\"\nand more\"");
+
+		assertThat(book.getIsbn()).isEqualTo("9780306406157");
+		assertThat(book.getTitle()).isEqualTo("Dune, Part One");
+		assertThat(book.getPrice()).isEqualTo(12.5);
+		assertThat(book.getStock()).isEqualTo(3);
+		assertThat(book.getDescription()).isEqualTo("says \"hi\"\nand more");
+	}
+
+	@Test
+	void parsesJsonLine() {
+		Book book = BookRecordParser.jsonl().parse(
+				"{\"isbn\":\"0306406152\",\"title\":\"T\",\"author\":\"A\",\"genre\":\"G\",\"price\":4,\"pageCount\":320}");
+
+		assertThat(book.getIsbn()).isEqualTo("0306406152");
+		assertThat(book.getPageCount()).isEqualTo(320);
+	}
+
+	@Test
+	void rejectsInvalidRecords() {
+		BookRecordParser parser = BookRecordParser.csv("isbn,title,author,genre,price");
+
+		assertThatThrownBy(() -> parser.parse("9780306406158,T,A,G,1"))
+				.hasMessageContaining("invalid ISBN");
+		assertThatThrownBy(() -> parser.parse("9780306406157,T,A,G,-1"))
+				.hasMessageContaining("price");
+		assertThatThrownBy(() -> parser.parse("9780306406157,,A,G,1"))
+				.hasMessageContaining("missing title");
+	}
+}
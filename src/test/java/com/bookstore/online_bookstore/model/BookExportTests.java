@@ -0,0 +1,70 @@
+package com.bookstore.online_bookstore.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.bookstore.online_bookstore.db.DatabaseManager;
+
+@SpringBootTest
+class BookExportTests {
+
+	@Autowired
+	DatabaseManager db;
+
+	@Test
+	void failedPageAbortsTheExport() throws Exception {
+		String genre = "Abort" + System.nanoTime();
+		List<Book> books = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			books.add(new Book(genre + "-" + i, null, "Title " + i, "Author", null, 2020, "English", 100, "Paperback", genre));
+		}
+		Book.saveBooks(books);
+
+		// After the first page, another thread takes the only permit and nobody may queue
+		CountDownLatch holding = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Thread holder = new Thread(() -> {
+			try {
+				db.inTransaction(conn -> {
+					holding.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					return null;
+				});
+			} catch (Exception ignored) {}
+		});
+
+		List<String> seen = new ArrayList<>();
+		try {
+			assertThatThrownBy(() -> new BookExport().forEach(new BookExport.Filter(Set.of(genre), null), 1, book -> {
+				if (seen.isEmpty()) {
+					db.enableBulkhead(1, 0, 100);
+					holder.start();
+					try {
+						holding.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				seen.add(book.getIsbn());
+			})).isInstanceOf(IllegalStateException.class).hasMessageContaining("after 1 books");
+		} finally {
+			release.countDown();
+			holder.join();
+			db.disableBulkhead();
+		}
+		assertThat(seen).containsExactly(genre + "-0");
+	}
+}
@@ -0,0 +1,46 @@
+package com.bookstore.online_bookstore.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class BookSearchTests {
+
+	// More matches than the ranked search returns by default
+	private static final int MATCHES = BookSearch.DEFAULT_LIMIT + 20;
+
+	final Book books = new Book(null, null, null, null, null, 0, null, 0, null, null);
+	String word;
+
+	@BeforeEach
+	void setUp() {
+		word = "Zq" + Long.toString(System.nanoTime(), 36);
+		List<Book> batch = new ArrayList<>();
+		for (int i = 0; i < MATCHES; i++) {
+			batch.add(new Book(word + "-" + i, null, "The " + word + "ling Tales " + i, "Pre" + word + "son",
+					null, 2020, "English", 100, "Paperback", "Fantasy"));
+		}
+		Book.saveBooks(batch);
+	}
+
+	@Test
+	void substringSearchMatchesMidWordAndReturnsEveryHit() {
+		String midWord = word.substring(1);
+
+		assertThat(books.searchByTitle(midWord)).hasSize(MATCHES);
+		assertThat(books.searchByAuthor(midWord)).hasSize(MATCHES);
+	}
+
+	@Test
+	void rankedSearchMatchesWordPrefixesUpToTheLimit() {
+		assertThat(books.searchByTitleRanked(word, BookSearch.DEFAULT_LIMIT)).hasSize(BookSearch.DEFAULT_LIMIT);
+		assertThat(books.searchByTitleRanked(word.substring(1), BookSearch.DEFAULT_LIMIT)).isEmpty();
+		assertThat(books.searchByAuthorRanked("Pre" + word, 5)).hasSize(5);
+	}
+}
@@ -0,0 +1,84 @@
+package com.bookstore.online_bookstore.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.bookstore.online_bookstore.db.DatabaseManager;
+
+@SpringBootTest
+class CartServiceTests {
+
+	@Autowired
+	DatabaseManager db;
+
+	CartService carts;
+	String fantasy;
+	String mystery;
+	int cartID;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		String run = Long.toString(System.nanoTime());
+		fantasy = "F" + run;
+		mystery = "M" + run;
+		Book.saveBooks(List.of(book(fantasy, "Fantasy", 12.5), book(mystery, "Mystery", 8.0)));
+
+		db.executePrepared("INSERT INTO users (email, role, memberType) VALUES (?, 'MEMBER', 'STANDARD')", run + "@test");
+		int userID = db.queryOne("SELECT userID FROM users WHERE email = ?", rs -> rs.getInt(1), run + "@test");
+
+		carts = new CartService(db);
+		cartID = carts.getOrCreateCart(userID);
+	}
+
+	@Test
+	void totalsFollowEveryChange() throws Exception {
+		carts.addItem(cartID, fantasy, 2);
+		db.executePrepared("UPDATE shopping_cart SET discountedTotal = 20.0 WHERE cartID = ?", cartID);
+		carts.addItem(cartID, mystery, 1);
+		carts.addItem(cartID, fantasy, 1);
+		carts.setQuantity(cartID, mystery, 3);
+		CartTotals totals = carts.removeItem(cartID, fantasy);
+
+		assertThat(totals.subtotal()).isEqualTo(24.0);
+		assertThat(totals.itemCount()).isEqualTo(3);
+		assertThat(totals.genreQuantities()).isEqualTo(Map.of("Mystery", 3));
+		assertThat(totals.totalPrice()).isEqualTo(24.0);
+
+		// Same figures as summing the cart from scratch
+		Double summed = db.queryOne("SELECT SUM(quantity * unitPrice) FROM cart_items WHERE cartID = ?",
+				rs -> rs.getDouble(1), cartID);
+		assertThat(carts.getTotals(cartID).subtotal()).isEqualTo(summed);
+
+		// A repriced total no longer fits the cart once it changes
+		Double discounted = db.queryOne("SELECT discountedTotal FROM shopping_cart WHERE cartID = ?",
+				rs -> (Double) rs.getObject(1), cartID);
+		assertThat(discounted).isNull();
+	}
+
+	@Test
+	void failedChangeLeavesTotalsAlone() throws Exception {
+		carts.addItem(cartID, fantasy, 1);
+
+		assertThatThrownBy(() -> carts.addItem(cartID, "no-such-book", 1))
+				.isInstanceOf(IllegalArgumentException.class);
+
+		CartTotals totals = carts.getTotals(cartID);
+		assertThat(totals.subtotal()).isEqualTo(12.5);
+		assertThat(totals.itemCount()).isEqualTo(1);
+		assertThat(totals.genreQuantities()).isEqualTo(Map.of("Fantasy", 1));
+	}
+
+	private static Book book(String isbn, String genre, double price) {
+		Book book = new Book(isbn, null, "Title " + isbn, "Author", null, 2020, "English", 100, "Paperback", genre);
+		book.setPrice(price);
+		return book;
+	}
+}
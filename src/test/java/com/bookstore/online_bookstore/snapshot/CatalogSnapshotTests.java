@@ -0,0 +1,71 @@
+package com.bookstore.online_bookstore.snapshot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.bookstore.online_bookstore.model.Book;
+
+class CatalogSnapshotTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void lookupsAndListingsReadTheMappedFile() throws IOException {
+		Book first = book("9780000000001", "Ä Title, with \"quotes\"", "Fantasy");
+		first.setDescription(null);
+		first.setPromo(true);
+		first.setPrice(12.5);
+		Book second = book("9780000000002", "Second", "Fantasy");
+		Book third = book("9780000000003", "Third", "Poetry");
+
+		Path file = dir.resolve("catalog.snapshot");
+		CatalogSnapshot.write(file, 42, List.of(first, second, third)::forEach);
+		CatalogSnapshot snapshot = CatalogSnapshot.open(file);
+
+		assertThat(snapshot.catalogVersion()).isEqualTo(42);
+		assertThat(snapshot.size()).isEqualTo(3);
+		Book found = snapshot.get("9780000000001");
+		assertThat(CatalogSnapshot.sameBook(found, first)).isTrue();
+		assertThat(found.getDescription()).isNull();
+		assertThat(snapshot.get("9780000000000")).isNull();
+		assertThat(snapshot.get("9780000000009")).isNull();
+
+		assertThat(snapshot.listAfter(null, 2)).extracting(Book::getIsbn)
+				.containsExactly("9780000000001", "9780000000002");
+		assertThat(snapshot.listAfter("9780000000001", 10)).extracting(Book::getIsbn)
+				.containsExactly("9780000000002", "9780000000003");
+		assertThat(snapshot.listAfter("9780000000002x", 10)).extracting(Book::getIsbn)
+				.containsExactly("9780000000003");
+	}
+
+	@Test
+	void rejectsUnsortedInputAndCorruptFiles() throws IOException {
+		Path file = dir.resolve("catalog.snapshot");
+		List<Book> unsorted = List.of(book("2", "B", null), book("1", "A", null));
+		assertThatThrownBy(() -> CatalogSnapshot.write(file, 1, unsorted::forEach))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThat(file).doesNotExist();
+
+		CatalogSnapshot.write(file, 1, List.of(book("1", "A", null))::forEach);
+		byte[] bytes = Files.readAllBytes(file);
+		Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+		assertThatThrownBy(() -> CatalogSnapshot.open(file)).isInstanceOf(IOException.class);
+	}
+
+	private static Book book(String isbn, String title, String genre) {
+		Book book = new Book(isbn, null, title, "Author", "Publisher", 2020, "English", 100, "Paperback", genre);
+		book.setDescription("About " + title);
+		book.setStock(3);
+		return book;
+	}
+}
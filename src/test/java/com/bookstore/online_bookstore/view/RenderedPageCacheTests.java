@@ -0,0 +1,59 @@
+package com.bookstore.online_bookstore.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.bookstore.online_bookstore.model.Book;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RenderedPageCacheTests {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Test
+	void repeatRendersComeFromTheCacheUntilTheCatalogChanges() throws Exception {
+		RenderedPageCache cache = RenderedPageCache.getInstance();
+		cache.clear();
+		RenderedPageCache.Stats before = cache.getStats();
+
+		for (int i = 0; i < 3; i++) {
+			mvc.perform(get("/"))
+					.andExpect(status().isOk())
+					.andExpect(content().string(containsString("Welcome to Online Bookstore")));
+		}
+		RenderedPageCache.Stats warm = cache.getStats();
+		assertThat(warm.hits() - before.hits()).isEqualTo(2);
+		assertThat(warm.pages()).isEqualTo(1);
+
+		Book book = new Book("P" + System.nanoTime(), null, "Page Cache", "Author", null, 2020, "English", 100, "Paperback", "Computing");
+		book.setPrice(5.0);
+		Book.saveBooks(List.of(book));
+
+		mvc.perform(get("/")).andExpect(status().isOk());
+		RenderedPageCache.Stats after = cache.getStats();
+		assertThat(after.misses() - warm.misses()).isEqualTo(1);
+		assertThat(after.invalidations()).isGreaterThan(warm.invalidations());
+	}
+
+	@Test
+	void fingerprintFollowsModelContents() {
+		assertThat(RenderedPageCache.fingerprint(Map.of("message", "a")))
+				.isEqualTo(RenderedPageCache.fingerprint(Map.of("message", "a")))
+				.isNotEqualTo(RenderedPageCache.fingerprint(Map.of("message", "b")));
+		assertThat(RenderedPageCache.fingerprint(Map.of("thing", new Object()))).isNull();
+	}
+}